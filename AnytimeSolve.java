@@ -0,0 +1,461 @@
+/**
+ * AnytimeSolve.java trades the length of the solution for time. Weighted
+ * A* orders boards by depth + weight * estimate, which heads for the goal
+ * much more greedily than A* and finds a solution at most weight times as
+ * long as the shortest one. Given a time limit, the search keeps going
+ * after its first solution as Anytime Repairing A* (ARA*, Likhachev et
+ * al.): the weight is lowered step by step and each new search reuses the
+ * depths found by the ones before it, only going over boards whose depth
+ * got shorter since they were expanded. Every finished search gives a
+ * solution at least as short as the one before, until the weight reaches 1
+ * and the solution is optimal or the time runs out.
+ *
+ * The first solution is always finished, however long it takes, so a
+ * weight that is high enough to answer within the time limit has to be
+ * chosen for the boards being solved (e.g. 3 or more for 4x4 boards in
+ * tens of milliseconds). getBound gives how far from optimal the returned
+ * solution can be at most.
+ * note : boards are packed into longs, so only boards of at most 16 pieces (e.g. 4x4, 3x5 or 2x8) are supported
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnytimeSolve implements Solver {
+
+	private static final int NONE = 0xFF; // blank position stored for the input board
+	private static final double STEP = 0.5; // amount the weight is lowered between searches
+
+	private boolean solvable;
+	private Solution sequence; // moves that reach the solution(null if it does not exist)
+	private SearchStats stats = new SearchStats(); // counters of the search
+	private double bound; // most the solution can be longer than the shortest one, as a factor
+
+	private Heuristic heuristic; // estimate of the moves left from a board
+	private PackedBoard scratch; // board being expanded
+	private long goal; // packed goal board
+	private BoardTable depths; // depth << 8 | from of every board reached
+	private BoardTable closed; // boards expanded by the current search
+	private MinPQ<Node> open; // boards waiting to be expanded by the current search
+	private List<Node> inconsistent; // expanded boards whose depth got shorter afterwards
+	private double weight; // weight of the estimate in the current search
+	private long deadline; // System.nanoTime after which no new search is started
+	private int[] moves = new int[4];
+
+	/**
+	 * inner class represents a board waiting to be expanded
+	 */
+	private static class Node implements Comparable<Node>, MinPQ.Indexed {
+		private long board; // packed board
+		private int depth; // number of moves made already
+		private int estimate; // estimated number of moves left
+		private double priority; // depth + weight * estimate
+		private int slot; // slot of the node in the heap of the open queue
+
+		/**
+		 * initializes the node with the input variables of the same name
+		 */
+		private Node(long board, int depth, int estimate, double weight) {
+			this.board = board;
+			this.depth = depth;
+			this.estimate = estimate;
+			priority = depth + weight * estimate;
+		}
+
+		/**
+		 * orders nodes by priority, deeper nodes first on ties
+		 *
+		 * @param other Node node being compared to
+		 * @return int compares this node and the input node
+		 */
+		public int compareTo(Node other) {
+			int cmp = Double.compare(priority, other.priority);
+
+			return cmp != 0 ? cmp : Integer.compare(other.depth, depth);
+		}
+
+		/**
+		 * checks if the two nodes hold the same board
+		 *
+		 * @param other Object object being compared to
+		 * @return boolean whether or not the boards are the same
+		 */
+		public boolean equals(Object other) {
+			return other instanceof Node && board == ((Node) other).board;
+		}
+
+		/**
+		 * returns a hash code of the board of the node
+		 *
+		 * @return int hash code of the board
+		 */
+		public int hashCode() {
+			return BoardTable.mix(board);
+		}
+
+		/** returns the slot of the node in the heap of a MinPQ **/
+		public int getSlot() {
+			return slot;
+		}
+
+		/** records the slot of the node in the heap of a MinPQ **/
+		public void setSlot(int slot) {
+			this.slot = slot;
+		}
+	}
+
+	/**
+	 * solves the board with weighted A* and manhattan distance, returning
+	 * the first solution found
+	 *
+	 * @param board Board board being solved (at most 16 pieces)
+	 * @param weight double weight of the estimate (at least 1)
+	 */
+	public AnytimeSolve(Board board, double weight) {
+		this(board, weight, 0, new ManhattanHeuristic());
+	}
+
+	/**
+	 * solves the board with ARA* and manhattan distance, improving the
+	 * solution until it is optimal or the time limit has passed
+	 *
+	 * @param board Board board being solved (at most 16 pieces)
+	 * @param weight double weight of the estimate in the first search (at least 1)
+	 * @param timeLimit long milliseconds the solution may be improved for
+	 */
+	public AnytimeSolve(Board board, double weight, long timeLimit) {
+		this(board, weight, timeLimit, new ManhattanHeuristic());
+	}
+
+	/**
+	 * solves the board with ARA* and the given heuristic, improving the
+	 * solution until it is optimal or the time limit has passed. A time
+	 * limit of 0 stops after the first solution (weighted A*).
+	 *
+	 * @param board Board board being solved (at most 16 pieces)
+	 * @param weight double weight of the estimate in the first search (at least 1)
+	 * @param timeLimit long milliseconds the solution may be improved for
+	 * @param heuristic Heuristic estimate of the moves left from a board
+	 */
+	public AnytimeSolve(Board board, double weight, long timeLimit, Heuristic heuristic) {
+		long time = System.nanoTime();
+
+		if (!board.isPackable())
+			throw new IllegalArgumentException("Error: anytime search needs boards of at most 16 pieces");
+		if (!(weight >= 1))
+			throw new IllegalArgumentException("Error: weight must be at least 1");
+		if (timeLimit < 0)
+			throw new IllegalArgumentException("Error: time limit must not be negative");
+
+		solvable = board.isSolvable();
+
+		if (solvable == false) { // if the board is not solvable, sequence is null
+			sequence = null;
+			stats.setupNanos = System.nanoTime() - time;
+			return;
+		}
+
+		this.heuristic = heuristic;
+		this.weight = weight;
+		deadline = time + timeLimit * 1000000;
+		scratch = new PackedBoard(board);
+		goal = goal(board.getRows() * board.getLength());
+		depths = new BoardTable();
+		closed = new BoardTable();
+		open = new MinPQ<Node>();
+		inconsistent = new ArrayList<Node>();
+
+		long start = board.pack();
+
+		depths.put(start, NONE);
+		open.add(new Node(start, 0, heuristic.estimate(scratch), weight));
+		stats.evaluations++;
+		stats.setupNanos = System.nanoTime() - time;
+		time += stats.setupNanos;
+
+		improve(false);
+		bound = Math.min(weight, (double) depth(goal) / lowerBound());
+
+		while (bound > 1 && System.nanoTime() < deadline) {
+			this.weight = Math.max(1, this.weight - STEP);
+			reopen();
+
+			if (!improve(true))
+				break;
+
+			bound = Math.min(this.weight, (double) depth(goal) / lowerBound());
+		}
+
+		stats.closed(depths.size());
+		stats.searchNanos = System.nanoTime() - time;
+		time += stats.searchNanos;
+
+		sequence = path(board);
+		stats.moves = sequence.length();
+		stats.pathNanos = System.nanoTime() - time;
+	}
+
+	/**
+	 * helper function expands boards in order of priority until the goal
+	 * has a priority no larger than that of any board left. A board whose
+	 * depth gets shorter is queued again unless this search has already
+	 * expanded it, in which case it waits for the next search.
+	 *
+	 * @param timed boolean whether or not to give up once the deadline passes
+	 * @return boolean whether or not the search finished
+	 */
+	private boolean improve(boolean timed) {
+		stats.iterations++;
+
+		while (!open.isEmpty() && depth(goal) > open.min().priority) {
+			Solver.checkInterrupted();
+
+			if (timed && (stats.expanded & 0xFF) == 0 && System.nanoTime() >= deadline)
+				return false;
+
+			Node node = open.removeMin();
+
+			closed.put(node.board, 0);
+			scratch.load(node.board);
+			stats.expanded++;
+
+			int blank = scratch.getBlank(), count = scratch.neighbors(moves);
+
+			for (int k = 0; k < count; k++) {
+				int p = moves[k];
+				int old = depths.get(PackedBoard.move(node.board, blank, p));
+
+				stats.generated++;
+
+				if (old != -1 && (old >>> 8) <= node.depth + 1) {
+					stats.duplicates++;
+					continue;
+				}
+
+				scratch.move(p);
+
+				long next = scratch.pack();
+				Node child = new Node(next, node.depth + 1,
+						heuristic.update(scratch, node.estimate, p, blank), weight);
+
+				stats.evaluations++;
+				scratch.move(blank);
+				depths.put(next, child.depth << 8 | blank);
+
+				if (closed.get(next) != -1)
+					inconsistent.add(child);
+				else if (!open.decreaseKey(child) && !open.contains(child))
+					open.add(child);
+			}
+
+			stats.open(open.size());
+		}
+
+		return true;
+	}
+
+	/**
+	 * helper function starts a new search with the current weight over the
+	 * boards left in the queue and the ones whose depth got shorter
+	 */
+	private void reopen() {
+		MinPQ<Node> queue = new MinPQ<Node>();
+
+		for (Node node : drain()) {
+			Node fresh = new Node(node.board, depth(node.board), node.estimate, weight);
+
+			if (!queue.decreaseKey(fresh) && !queue.contains(fresh))
+				queue.add(fresh);
+		}
+
+		open = queue;
+		closed = new BoardTable();
+		inconsistent = new ArrayList<Node>();
+	}
+
+	/**
+	 * helper function returns the smallest depth + estimate of the boards
+	 * left in the queue or waiting for the next search, which is at most the
+	 * length of the shortest solution
+	 *
+	 * @return int lower bound on the length of the shortest solution
+	 */
+	private int lowerBound() {
+		int result = Integer.MAX_VALUE;
+		List<Node> waiting = drain();
+
+		for (Node node : waiting) {
+			result = Math.min(result, depth(node.board) + node.estimate);
+			open.add(node);
+		}
+
+		inconsistent = new ArrayList<Node>();
+
+		// the goal itself is a bound once nothing cheaper is left
+		return Math.max(1, Math.min(result, depth(goal)));
+	}
+
+	/**
+	 * helper function empties the queue and the boards waiting for the
+	 * next search into one list, keeping one node per board
+	 *
+	 * @return List<Node> boards that were waiting
+	 */
+	private List<Node> drain() {
+		List<Node> result = new ArrayList<Node>();
+		BoardTable seen = new BoardTable();
+
+		while (!open.isEmpty()) {
+			Node node = open.removeMin();
+
+			if (seen.put(node.board, 0))
+				result.add(node);
+		}
+
+		for (Node node : inconsistent)
+			if (seen.put(node.board, 0))
+				result.add(node);
+
+		return result;
+	}
+
+	/**
+	 * helper function returns the depth a packed board has been reached at
+	 * (Integer.MAX_VALUE if it has not been reached)
+	 */
+	private int depth(long board) {
+		int value = depths.get(board);
+
+		return value == -1 ? Integer.MAX_VALUE : value >>> 8;
+	}
+
+	/**
+	 * helper function rebuilds the solution by undoing the stored moves
+	 * from the goal back to the input board. A board expanded before its
+	 * depth got shorter keeps its old depth, so the goal can be recorded
+	 * deeper than the path actually leading to it; the moves are counted
+	 * as they are undone instead of trusting that depth.
+	 *
+	 * @param board Board input board
+	 * @return Solution moves from the input board to the goal
+	 */
+	private Solution path(Board board) {
+		int width = board.getLength(), count = 0;
+		byte[] reversed = new byte[64]; // moves from the goal back to the input board
+		long current = goal;
+
+		scratch.load(current);
+
+		while (true) {
+			int from = depths.get(current) & NONE;
+
+			if (from == NONE)
+				break;
+
+			if (count == reversed.length) {
+				byte[] temp = new byte[count * 2];
+				System.arraycopy(reversed, 0, temp, 0, count);
+				reversed = temp;
+			}
+
+			reversed[count++] = (byte) Solution.direction(from, scratch.getBlank(), width);
+			current = PackedBoard.move(current, scratch.getBlank(), from);
+			scratch.load(current);
+		}
+
+		byte[] moves = new byte[count];
+
+		for (int i = 0; i < count; i++)
+			moves[i] = reversed[count - 1 - i];
+
+		return new Solution(board, moves);
+	}
+
+	/**
+	 * helper function packs the goal board with the given number of tiles
+	 *
+	 * @param size int number of tiles including the blank
+	 * @return long packed goal board
+	 */
+	private static long goal(int size) {
+		long result = 0;
+
+		for (int p = 0; p < size - 1; p++)
+			result |= (long) (p + 1) << (p << 2);
+
+		return result;
+	}
+
+	/**
+	 * returns the most the solution can be longer than the shortest one,
+	 * as a factor (1 if the solution is optimal)
+	 *
+	 * @return double suboptimality bound of the solution
+	 */
+	public double getBound() {
+		return bound;
+	}
+
+	/**
+	 * returns whether or not the solution is known to be optimal
+	 *
+	 * @return boolean whether or not the bound has reached 1
+	 */
+	public boolean isOptimal() {
+		return bound <= 1;
+	}
+
+	/**
+	 * returns the counters collected while searching
+	 *
+	 * @return SearchStats counters of the search
+	 */
+	public SearchStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * returns whether or not the board was solvable
+	 *
+	 * @return boolean whether or not the board was solvable
+	 */
+	public boolean isSolvable() {
+		return solvable;
+	}
+
+	/**
+	 * returns an Iterable<Board> that replays the sequence of moves that
+	 * need to be made to solve the puzzle, one board at a time
+	 *
+	 * @return Iterable<Board> boards the moves needed to solve the
+	 * 		   puzzle pass through(null if unsolvable)
+	 */
+	public Iterable<Board> getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * returns the moves needed to solve the puzzle
+	 *
+	 * @return Solution moves of the solution(null if unsolvable)
+	 */
+	public Solution getSolution() {
+		return sequence;
+	}
+
+	/**
+	 * returns the number of moves needed to go from the board to
+	 * the solution board
+	 *
+	 * @return int number of moves needed to find solution
+	 */
+	public int getSolutionLength() {
+		return sequence.length() - 1;
+	}
+}
@@ -0,0 +1,354 @@
+/**
+ * BatchSolve.java solves many boards at once on a work stealing
+ * (fork join) pool with one worker per core by default. Each board is
+ * solved by its own solver object, so solvers never share search state;
+ * only the heuristic passed to them is shared, which is why heuristics may
+ * not change during a search. At most a fixed number of boards are in
+ * flight at a time so that a stream of millions of boards does not end up
+ * queued in memory, and a board that takes longer than the timeout is
+ * stopped by interrupting its worker (see Solver.checkInterrupted).
+ *
+ * main runs a batch from the command line without any input from the
+ * user: boards are streamed from a file (see BoardReader), solved with the
+ * chosen solver and number of workers, and every result is streamed to an
+ * output file as it finishes (see SolutionWriter), so files of millions of
+ * boards are solved in constant memory.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class BatchSolve implements AutoCloseable {
+
+	private ForkJoinPool pool; // workers that run the solvers
+	private ScheduledExecutorService timer; // interrupts solvers that run too long
+	private int inFlight; // most boards queued or being solved at once
+	private Function<Board, Solver> solver; // creates the solver for a board
+	private long timeout; // nanoseconds a board may take (0 for no limit)
+
+	/**
+	 * result of solving one board of a batch
+	 */
+	public static class Result {
+		private int index; // position of the board in the input
+		private Board board; // null if the board could not be read
+		private Solver solver; // null if the board timed out or failed
+		private boolean timedOut;
+		private RuntimeException error; // exception thrown while reading or solving (null if none)
+		private long time; // nanoseconds spent solving
+
+		/** creates new instance of Result for the board at index **/
+		private Result(int index, Board board) {
+			this.index = index;
+			this.board = board;
+		}
+
+		/** returns the position of the board in the input **/
+		public int getIndex() {
+			return index;
+		}
+
+		/** returns the board that was solved (null if it could not be read) **/
+		public Board getBoard() {
+			return board;
+		}
+
+		/** returns the solver that solved the board (null if it did not finish) **/
+		public Solver getSolver() {
+			return solver;
+		}
+
+		/** returns whether or not the board took longer than the timeout **/
+		public boolean isTimedOut() {
+			return timedOut;
+		}
+
+		/** returns the exception thrown while reading or solving the board (null if none) **/
+		public RuntimeException getError() {
+			return error;
+		}
+
+		/** returns the nanoseconds spent solving the board **/
+		public long getTime() {
+			return time;
+		}
+	}
+
+	/**
+	 * creates new instance of BatchSolve
+	 *
+	 * @param solver Function<Board, Solver> creates the solver for a board,
+	 *		  for example IDASolve::new
+	 * @param threads int number of workers (0 for one per core)
+	 * @param inFlight int most boards queued or being solved at once
+	 * @param timeout long milliseconds a board may take (0 for no limit)
+	 */
+	public BatchSolve(Function<Board, Solver> solver, int threads, int inFlight, long timeout) {
+		if (threads < 0 || inFlight < 1 || timeout < 0)
+			throw new IllegalArgumentException("Error: invalid batch settings");
+
+		this.solver = solver;
+		this.inFlight = inFlight;
+		this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+		pool = threads == 0 ? new ForkJoinPool() : new ForkJoinPool(threads);
+		timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "batch-solve-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * solves every board and returns the results in the same order as the boards
+	 *
+	 * @param boards List<Board> boards being solved
+	 * @return List<Result> result for each board, in input order
+	 */
+	public List<Result> solveAll(List<Board> boards) throws InterruptedException {
+		Result[] results = new Result[boards.size()];
+
+		solveEach(boards.iterator(), r -> results[r.index] = r);
+
+		List<Result> list = new ArrayList<Result>(results.length);
+		for (Result r : results)
+			list.add(r);
+
+		return list;
+	}
+
+	/**
+	 * solves the boards as they are read from the iterator and hands every
+	 * result to sink as soon as it is done, so results arrive in the order
+	 * they finish. sink is called from the worker threads, one call at a
+	 * time. Returns once every board has been solved.
+	 * A board the iterator cannot read (it throws IllegalArgumentException,
+	 * see BoardReader) is handed to sink as a failed result for its index.
+	 * If sink (or anything else on a worker or the iterator) throws, no more
+	 * boards are handed out, and once the boards already running are done
+	 * the first exception thrown is thrown from here, so results are never
+	 * lost silently and sink is never called after this returns.
+	 *
+	 * @param boards Iterator<Board> boards being solved (e.g. stream.iterator())
+	 * @param sink Consumer<Result> receives every result
+	 */
+	public void solveEach(Iterator<Board> boards, Consumer<Result> sink) throws InterruptedException {
+		Semaphore slots = new Semaphore(inFlight); // one permit per board allowed in flight
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>(); // first exception thrown on a worker
+		int index = 0;
+
+		try {
+			while (failure.get() == null && boards.hasNext()) {
+				Result result = new Result(index++, null);
+
+				try {
+					result.board = boards.next();
+				}
+				catch (IllegalArgumentException e) { // a bad record only fails its own index
+					result.error = e;
+				}
+
+				slots.acquire();
+				pool.execute(() -> {
+					try {
+						if (result.board != null)
+							run(result);
+						synchronized (sink) {
+							sink.accept(result);
+						}
+					}
+					catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+					finally {
+						slots.release();
+					}
+				});
+			}
+		}
+		finally { // the boards already handed out may still be using sink
+			slots.acquireUninterruptibly(inFlight);
+			slots.release(inFlight);
+		}
+
+		Throwable e = failure.get();
+
+		if (e instanceof RuntimeException)
+			throw (RuntimeException) e;
+		if (e instanceof Error)
+			throw (Error) e;
+		if (e != null)
+			throw new IllegalStateException("Error: batch failed", e);
+	}
+
+	/**
+	 * helper function solves the board of result on the current worker,
+	 * interrupting the worker if the timeout passes first
+	 *
+	 * @param result Result result being filled in
+	 */
+	private void run(Result result) {
+		Thread worker = Thread.currentThread();
+		ScheduledFuture<?> alarm = null;
+		long start = System.nanoTime();
+
+		if (timeout > 0)
+			alarm = timer.schedule(() -> {
+				synchronized (result) {
+					if (result.time == 0) { // still solving
+						result.timedOut = true;
+						worker.interrupt();
+					}
+				}
+			}, timeout, TimeUnit.NANOSECONDS);
+
+		try {
+			result.solver = solver.apply(result.board);
+		}
+		catch (CancellationException e) {
+			result.timedOut = true;
+		}
+		catch (RuntimeException e) {
+			result.error = e;
+		}
+		finally {
+			synchronized (result) {
+				result.time = Math.max(1, System.nanoTime() - start);
+
+				if (alarm != null)
+					alarm.cancel(false);
+				if (result.timedOut) { // clear the interrupt so the worker can be reused
+					result.solver = null;
+					Thread.interrupted();
+				}
+			}
+		}
+	}
+
+	/**
+	 * stops the workers once the boards already handed out are done
+	 */
+	public void close() {
+		pool.shutdown();
+		timer.shutdownNow();
+	}
+
+	/**
+	 * returns the solver with the given name
+	 *
+	 * @param name String astar, ida, ida-lc or bidirectional
+	 * @return Function<Board, Solver> creates the solver for a board
+	 */
+	static Function<Board, Solver> solver(String name) {
+		switch (name) {
+			case "astar":
+				return Solve::new;
+			case "ida":
+				return IDASolve::new;
+			case "ida-lc":
+				Heuristic heuristic = new LinearConflictHeuristic(); // shared, heuristics keep no state
+				return board -> new IDASolve(board, heuristic);
+			case "bidirectional":
+				return BidirectionalSolve::new;
+			default:
+				throw new IllegalArgumentException("Error: unknown solver " + name);
+		}
+	}
+
+	/**
+	 * solves every board of a file and writes the results to another.
+	 * usage : java BatchSolve <input> <output> [--binary] [--shape <rows> <cols>]
+	 * 			[--solver astar|ida|ida-lc|bidirectional] [--threads <n>]
+	 * 			[--timeout <ms>] [--in-flight <n>] [--stats]
+	 * note : text input is read unless --binary is given, and square boards
+	 * 		  need no shape in text input
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 2) {
+			System.err.println("usage : java BatchSolve <input> <output> [--binary] [--shape <rows> <cols>]\n"
+							 + "        [--solver astar|ida|ida-lc|bidirectional] [--threads <n>]\n"
+							 + "        [--timeout <ms>] [--in-flight <n>] [--stats]");
+			System.exit(2);
+		}
+
+		BoardReader.Format format = BoardReader.Format.TEXT;
+		String name = "ida-lc";
+		int rows = 0, cols = 0, threads = 0, inFlight = 1024;
+		long timeout = 0;
+		boolean stats = false;
+
+		for (int i = 2; i < args.length; i++)
+			switch (args[i]) {
+				case "--binary":
+					format = BoardReader.Format.BINARY;
+					break;
+				case "--shape":
+					rows = Integer.parseInt(args[++i]);
+					cols = Integer.parseInt(args[++i]);
+					break;
+				case "--solver":
+					name = args[++i];
+					break;
+				case "--threads":
+					threads = Integer.parseInt(args[++i]);
+					break;
+				case "--timeout":
+					timeout = Long.parseLong(args[++i]);
+					break;
+				case "--in-flight":
+					inFlight = Integer.parseInt(args[++i]);
+					break;
+				case "--stats":
+					stats = true;
+					break;
+				default:
+					throw new IllegalArgumentException("Error: unknown option " + args[i]);
+			}
+
+		long[] counts = new long[4]; // solved, unsolvable, timed out and failed boards
+		long begin = System.currentTimeMillis();
+
+		try (BoardReader boards = new BoardReader(Paths.get(args[0]), format, rows, cols);
+			 SolutionWriter out = new SolutionWriter(Paths.get(args[1]), stats);
+			 BatchSolve batch = new BatchSolve(solver(name), threads, inFlight, timeout)) {
+			batch.solveEach(boards, result -> {
+				out.accept(result);
+
+				if (result.getSolver() != null)
+					counts[result.getSolver().isSolvable() ? 0 : 1]++;
+				else
+					counts[result.isTimedOut() ? 2 : 3]++;
+			});
+		}
+		catch (IOException | RuntimeException e) { // the output is incomplete, so no summary
+			System.err.println("Batch stopped after " + (counts[0] + counts[1] + counts[2] + counts[3])
+							   + " boards were written : " + e);
+			System.exit(1);
+		}
+
+		long total = counts[0] + counts[1] + counts[2] + counts[3];
+		long time = Math.max(1, System.currentTimeMillis() - begin);
+
+		System.out.println("Solved " + counts[0] + ", unsolvable " + counts[1] + ", timed out " + counts[2]
+						   + ", failed " + counts[3] + " of " + total + " boards in " + time + " ms ("
+						   + total * 1000 / time + " boards/s)");
+	}
+}
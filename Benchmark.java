@@ -0,0 +1,301 @@
+/**
+ * Benchmark.java times the hot paths of the solvers so that performance
+ * changes can be compared with reproducible numbers: building boards and
+ * their neighbors, comparing and hashing boards, the priority queues under
+ * the kind of priorities A* produces, and whole solves over fixed suites of
+ * 3x3 and 4x4 boards. Every suite is made from a fixed seed, so two runs
+ * (or two versions of the code) always see the same boards.
+ *
+ * Each benchmark is run a number of warmup rounds so the JIT compiler has
+ * settled, then timed over several measured rounds, and the mean and
+ * standard deviation of the time per operation are printed. Results of
+ * every operation are folded into a sink so the work cannot be optimized
+ * away. For the most stable numbers run it alone on an idle machine with a
+ * fixed heap, e.g. java -Xms2g -Xmx2g Benchmark.
+ * note : a suite file (e.g. the Korf 100) holds one board per line as the
+ * 		  pieces read row by row, separated by spaces, 0 for the blank
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class Benchmark {
+
+	private static final long SEED = 20180910L; // seed of every generated suite
+	private static final int WARMUP = 5; // rounds run before timing
+	private static final int ROUNDS = 10; // rounds timed
+	private static final int REPEAT = 1000; // passes over the boards in one board benchmark round
+
+	private static long sink; // results of every operation, printed at the end
+
+	/**
+	 * one operation being timed
+	 */
+	private interface Operation {
+		/** runs the operation once and returns a value that depends on its work **/
+		long run();
+	}
+
+	/**
+	 * element of the priority queue benchmarks ordered like a search state
+	 */
+	private static class Entry implements Comparable<Entry>, BucketPQ.Keyed {
+		private int depth; // number of moves made already
+		private int estimate; // estimated number of moves left
+
+		/** creates new instance of Entry **/
+		private Entry(int depth, int estimate) {
+			this.depth = depth;
+			this.estimate = estimate;
+		}
+
+		/** orders entries by depth + estimate, deeper entries first on ties **/
+		public int compareTo(Entry other) {
+			int cmp = Integer.compare(depth + estimate, other.depth + other.estimate);
+
+			return cmp != 0 ? cmp : Integer.compare(other.depth, depth);
+		}
+
+		/** returns depth + estimate **/
+		public int key() {
+			return depth + estimate;
+		}
+	}
+
+	/**
+	 * times an operation and prints the mean and standard deviation of the
+	 * time it took per operation
+	 *
+	 * @param name String name printed with the result
+	 * @param filter String only benchmarks whose name contains it are run
+	 * @param ops int number of operations done by one call of operation
+	 * @param operation Operation work being timed
+	 */
+	private static void measure(String name, String filter, int ops, Operation operation) {
+		if (!name.contains(filter))
+			return;
+
+		double[] times = new double[ROUNDS];
+		double mean = 0, variance = 0;
+
+		for (int i = 0; i < WARMUP; i++)
+			sink += operation.run();
+
+		for (int i = 0; i < ROUNDS; i++) {
+			long start = System.nanoTime();
+
+			sink += operation.run();
+			times[i] = (double) (System.nanoTime() - start) / ops;
+			mean += times[i] / ROUNDS;
+		}
+
+		for (double t : times)
+			variance += (t - mean) * (t - mean) / (ROUNDS - 1);
+
+		System.out.printf("%-32s %14.1f ns/op  +- %10.1f%n", name, mean, Math.sqrt(variance));
+	}
+
+	/**
+	 * reads a suite file with one board per line (see the note above)
+	 *
+	 * @param file String path of the suite file
+	 * @return List<Board> boards in the file
+	 */
+	static List<Board> readSuite(String file) throws IOException {
+		List<Board> result = new ArrayList<Board>();
+
+		for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+
+			String[] parts = line.split("\\s+");
+			int width = (int) Math.round(Math.sqrt(parts.length));
+			int[] tiles = new int[parts.length];
+
+			if (width * width != parts.length)
+				throw new IllegalArgumentException("Error: line is not a square board: " + line);
+
+			for (int i = 0; i < parts.length; i++)
+				tiles[i] = Integer.parseInt(parts[i]);
+
+			result.add(toBoard(tiles, width));
+		}
+
+		return result;
+	}
+
+	/**
+	 * helper function builds a board from its pieces read row by row
+	 */
+	private static Board toBoard(int[] tiles, int width) {
+		int[][] result = new int[width][width];
+
+		for (int p = 0; p < tiles.length; p++)
+			result[p / width][p % width] = tiles[p];
+
+		return new Board(result);
+	}
+
+	/**
+	 * helper function copies the pieces of boards into arrays for the
+	 * construction benchmark
+	 */
+	private static int[][][] arrays(List<Board> boards) {
+		int[][][] result = new int[boards.size()][][];
+
+		for (int b = 0; b < result.length; b++) {
+			Board board = boards.get(b);
+			int width = board.getLength();
+
+			result[b] = new int[width][width];
+			for (int i = 0; i < width; i++)
+				for (int j = 0; j < width; j++)
+					result[b][i][j] = board.getIndex(i, j);
+		}
+
+		return result;
+	}
+
+	/**
+	 * helper function runs removals of an A* like search on a queue: every
+	 * removed entry adds up to three children whose depth + estimate either
+	 * stays the same or grows by two, as it does with manhattan distance
+	 *
+	 * @param queue Frontier<Entry> empty queue being timed
+	 * @param removals int number of entries removed
+	 * @param seed long seed of the children added
+	 * @return long sum of the keys removed
+	 */
+	private static long search(Frontier<Entry> queue, int removals, long seed) {
+		Random random = new Random(seed);
+		long result = 0;
+
+		queue.add(new Entry(0, 40));
+
+		for (int i = 0; i < removals && !queue.isEmpty(); i++) {
+			Entry min = queue.removeMin();
+			int children = 1 + random.nextInt(3);
+
+			result += min.key();
+
+			for (int c = 0; c < children; c++)
+				queue.add(new Entry(min.depth + 1, min.estimate + (random.nextInt(3) == 0 ? 1 : -1)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * helper function solves every board of a suite and returns the sum of
+	 * the solution lengths
+	 */
+	private static long solveAll(List<Board> suite, Function<Board, Solver> solver) {
+		long result = 0;
+
+		for (Board board : suite)
+			result += solver.apply(board).getSolutionLength();
+
+		return result;
+	}
+
+	/**
+	 * runs every benchmark whose name contains the filter.
+	 * usage : java Benchmark [<filter> [<4x4 suite file>]]
+	 */
+	public static void main(String[] args) throws IOException {
+		String filter = args.length > 0 ? args[0] : "";
+		List<Board> small = new BoardGenerator(3, SEED).stream().limit(100).collect(Collectors.toList());
+		List<Board> large = args.length > 1 ? readSuite(args[1])
+				: new BoardGenerator(4, SEED).scrambles(40).limit(20).collect(Collectors.toList());
+		List<Board> mixed = new ArrayList<Board>(small);
+		int[][][] arrays;
+
+		mixed.addAll(new BoardGenerator(4, SEED).stream().limit(100).collect(Collectors.toList()));
+		arrays = arrays(mixed);
+
+		measure("board.construct", filter, arrays.length * REPEAT, () -> {
+			long result = 0;
+			for (int r = 0; r < REPEAT; r++)
+				for (int[][] a : arrays)
+					result += new Board(a).manhattan();
+			return result;
+		});
+
+		measure("board.findNeighbors", filter, mixed.size() * REPEAT, () -> {
+			long result = 0;
+			for (int r = 0; r < REPEAT; r++)
+				for (Board board : mixed)
+					for (Board next : board.findNeighbors())
+						result += next.manhattan();
+			return result;
+		});
+
+		List<Board> copies = new ArrayList<Board>();
+		for (int[][] a : arrays)
+			copies.add(new Board(a));
+
+		measure("board.equals", filter, mixed.size() * REPEAT, () -> {
+			long result = 0;
+			for (int r = 0; r < REPEAT; r++)
+				for (int i = 0; i < mixed.size(); i++)
+					if (mixed.get(i).equals(copies.get(i)))
+						result++;
+			return result;
+		});
+
+		measure("board.hashCode", filter, mixed.size() * REPEAT, () -> {
+			long result = 0;
+			for (int r = 0; r < REPEAT; r++)
+				for (Board board : mixed)
+					result += board.hashCode();
+			return result;
+		});
+
+		BoardGenerator generator = new BoardGenerator(4, SEED);
+		int[] tiles = new int[16];
+
+		measure("generate.4x4.fill", filter, REPEAT * 100, () -> {
+			long result = 0;
+			for (int i = 0; i < REPEAT * 100; i++) {
+				generator.fill(tiles);
+				result += tiles[0];
+			}
+			return result;
+		});
+
+		measure("generate.4x4.board", filter, REPEAT * 100, () -> {
+			long result = 0;
+			for (int i = 0; i < REPEAT * 100; i++)
+				result += generator.next().manhattan();
+			return result;
+		});
+
+		int removals = 1 << 16;
+
+		measure("queue.heap2", filter, removals, () -> search(new MinPQ<Entry>(2), removals, SEED));
+		measure("queue.heap4", filter, removals, () -> search(new MinPQ<Entry>(4), removals, SEED));
+		measure("queue.bucket", filter, removals, () -> search(new BucketPQ<Entry>(), removals, SEED));
+
+		measure("solve.3x3.astar", filter, small.size(), () -> solveAll(small, b -> new Solve(b)));
+		measure("solve.3x3.ida", filter, small.size(), () -> solveAll(small, b -> new IDASolve(b)));
+		measure("solve.4x4.astar", filter, large.size(), () -> solveAll(large, b -> new Solve(b)));
+		measure("solve.4x4.ida", filter, large.size(),
+				() -> solveAll(large, b -> new IDASolve(b, new LinearConflictHeuristic())));
+
+		System.out.println("(sink " + sink + ")");
+	}
+}
@@ -0,0 +1,321 @@
+/**
+ * BidirectionalSolve.java finds the shortest path from the input board to
+ * the solved board by searching forward from the input and backward from
+ * the goal at the same time until the two searches meet (the MM algorithm
+ * of Holte et al.). A node's priority is the larger of depth + estimate and
+ * twice its depth, which keeps either search from going past the middle of
+ * the optimal path, and whichever search has the lower smallest priority
+ * is expanded next. Once the best path found through a meeting point is no
+ * longer than the smallest priority left, that path is optimal.
+ *
+ * The forward search uses the given heuristic, the backward one uses the
+ * manhattan distance of the pieces to where they are on the input board.
+ * Both have to be consistent (never drop by more than 1 per move).
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.HashMap;
+
+public class BidirectionalSolve implements Solver {
+
+	private boolean solvable;
+	private Solution sequence; // moves that reach the solution(null if it does not exist)
+
+	/**
+	 * inner class represents a search node of either search, holding its
+	 * board, the node it was reached from, its depth from the end the search
+	 * started at and its estimate of the moves to the other end
+	 */
+	private static class Node implements Comparable<Node>, MinPQ.Indexed {
+		private Board board;
+		private Node parent;
+		private int depth;
+		private int estimate;
+		private boolean closed; // whether or not the node has been expanded
+		private int slot; // slot of the node in the heap of the open queue
+
+		/**
+		 * initializes the node with the input variables of the same name
+		 */
+		private Node(Board board, Node parent, int depth, int estimate) {
+			this.board = board;
+			this.parent = parent;
+			this.depth = depth;
+			this.estimate = estimate;
+		}
+
+		/**
+		 * returns the MM priority of the node
+		 *
+		 * @return int larger of depth + estimate and 2 * depth
+		 */
+		private int priority() {
+			return Math.max(depth + estimate, 2 * depth);
+		}
+
+		/** returns the slot of the node in the heap of a MinPQ **/
+		public int getSlot() {
+			return slot;
+		}
+
+		/** records the slot of the node in the heap of a MinPQ **/
+		public void setSlot(int slot) {
+			this.slot = slot;
+		}
+
+		/**
+		 * compares the priorities of this node and other, picking the
+		 * shallower node first when they tie
+		 *
+		 * @param other Node node being compared to
+		 * @return int compares this node and the input node
+		 */
+		public int compareTo(Node other) {
+			int cmp = Integer.compare(priority(), other.priority());
+
+			return cmp != 0 ? cmp : Integer.compare(depth, other.depth);
+		}
+
+		/**
+		 * two nodes are equal when they hold equal boards
+		 *
+		 * @param other Object object being compared to this node
+		 * @return boolean whether or not both nodes hold the same board
+		 */
+		public boolean equals(Object other) {
+			if (!(other instanceof Node))
+				return false;
+
+			return board.equals(((Node) other).board);
+		}
+
+		/**
+		 * returns the hash code of the board held in the node
+		 *
+		 * @return int hash code of the node
+		 */
+		public int hashCode() {
+			return board.hashCode();
+		}
+	}
+
+	/**
+	 * one direction of the search with its open queue and every node it reached
+	 */
+	private static class Search {
+		private MinPQ<Node> open = new MinPQ<Node>();
+		private HashMap<Board, Node> reached = new HashMap<Board, Node>();
+	}
+
+	/**
+	 * solves the board using manhattan distance as the forward heuristic
+	 *
+	 * @param board Board board being solved
+	 */
+	public BidirectionalSolve(Board board) {
+		this(board, new ManhattanHeuristic());
+	}
+
+	/**
+	 * solves the board searching from both ends
+	 *
+	 * @param board Board board being solved
+	 * @param heuristic Heuristic consistent estimate of the moves to the goal
+	 */
+	public BidirectionalSolve(Board board, Heuristic heuristic) {
+		int width = board.getLength(), rows = board.getRows();
+		int[] target = new int[rows * width]; // position of every piece on the input board
+		Search forward = new Search(), backward = new Search();
+		Node meet = null; // board where the best path found so far crosses over
+		int best = Integer.MAX_VALUE; // length of that path
+
+		solvable = board.isSolvable();
+
+		if (solvable == false) { // if the board is not solvable, sequence is null
+			sequence = null;
+			return;
+		}
+
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < width; j++)
+				target[board.getIndex(i, j)] = i * width + j;
+
+		Board goal = goal(rows, width);
+		Node start = new Node(board, null, 0, heuristic.estimate(board));
+		Node end = new Node(goal, null, 0, distance(goal, target));
+
+		forward.open.add(start);
+		forward.reached.put(board, start);
+		backward.open.add(end);
+		backward.reached.put(goal, end);
+
+		if (board.isGoal()) {
+			meet = start;
+			best = 0;
+		}
+
+		while (!forward.open.isEmpty() && !backward.open.isEmpty()) {
+			Solver.checkInterrupted();
+
+			int fmin = forward.open.min().priority(), bmin = backward.open.min().priority();
+
+			if (best <= Math.min(fmin, bmin)) // no path left can be shorter
+				break;
+
+			boolean ahead = fmin <= bmin; // expand the search with the lower priority
+			Search search = ahead ? forward : backward, other = ahead ? backward : forward;
+			Node min = search.open.removeMin();
+
+			min.closed = true;
+
+			for (Board checking : min.board.findNeighbors()) {
+				Node node = search.reached.get(checking);
+				int depth = min.depth + 1;
+
+				if (node != null && node.depth <= depth)
+					continue;
+
+				if (node == null) {
+					node = new Node(checking, min, depth,
+							ahead ? heuristic.estimate(checking) : distance(checking, target));
+					search.reached.put(checking, node);
+					search.open.add(node);
+				}
+				else {
+					Node shorter = new Node(node.board, min, depth, node.estimate);
+
+					search.reached.put(checking, shorter);
+					if (node.closed)
+						search.open.add(shorter);
+					else
+						search.open.decreaseKey(shorter);
+					node = shorter;
+				}
+
+				Node across = other.reached.get(checking);
+
+				if (across != null && depth + across.depth < best) {
+					best = depth + across.depth;
+					meet = ahead ? node : across;
+				}
+			}
+		}
+
+		sequence = path(board, meet, backward);
+	}
+
+	/**
+	 * helper function joins the forward path to meet with the backward
+	 * path from meet into the moves from the input board to the goal
+	 *
+	 * @param board Board input board
+	 * @param meet Node forward node where the paths cross
+	 * @param backward Search backward search
+	 * @return Solution moves from the input board to the goal
+	 */
+	private static Solution path(Board board, Node meet, Search backward) {
+		Node across = backward.reached.get(meet.board);
+		byte[] moves = new byte[meet.depth + across.depth];
+		int width = board.getLength();
+
+		for (int d = meet.depth - 1; d >= 0; d--, meet = meet.parent)
+			moves[d] = (byte) direction(meet.parent.board, meet.board, width);
+
+		for (int d = moves.length - across.depth; across.parent != null; d++, across = across.parent)
+			moves[d] = (byte) direction(across.board, across.parent.board, width);
+
+		return new Solution(board, moves);
+	}
+
+	/**
+	 * helper function returns the direction the blank moves in from one
+	 * board to the next (0 up, 1 down, 2 left, 3 right)
+	 */
+	private static int direction(Board from, Board to, int width) {
+		int[] a = from.getBlankIndex(), b = to.getBlankIndex();
+
+		return Solution.direction(a[0] * width + a[1], b[0] * width + b[1], width);
+	}
+
+	/**
+	 * helper function builds the goal board of the given shape
+	 *
+	 * @param rows int number of rows of board
+	 * @param width int side length of board (number of columns)
+	 * @return Board goal board
+	 */
+	private static Board goal(int rows, int width) {
+		int[][] tiles = new int[rows][width];
+
+		for (int p = 0; p < rows * width - 1; p++)
+			tiles[p / width][p % width] = p + 1;
+
+		return new Board(tiles);
+	}
+
+	/**
+	 * helper function finds the manhattan distance of every piece on board
+	 * to its position on the input board
+	 *
+	 * @param board Board board being estimated
+	 * @param target int[] target[t] is the position of piece t on the input board
+	 * @return int moves needed at least to get back to the input board
+	 */
+	private static int distance(Board board, int[] target) {
+		int width = board.getLength(), result = 0;
+
+		for (int i = 0; i < board.getRows(); i++)
+			for (int j = 0; j < width; j++) {
+				int t = board.getIndex(i, j);
+
+				if (t != 0)
+					result += Math.abs(target[t] / width - i) + Math.abs(target[t] % width - j);
+			}
+
+		return result;
+	}
+
+	/**
+	 * returns whether or not the board was solvable
+	 *
+	 * @return boolean whether or not the board was solvable
+	 */
+	public boolean isSolvable() {
+		return solvable;
+	}
+
+	/**
+	 * returns an Iterable<Board> that replays the sequence of moves that
+	 * need to be made to solve the puzzle, one board at a time
+	 *
+	 * @return Iterable<Board> boards the moves needed to solve the
+	 * 		   puzzle pass through(null if unsolvable)
+	 */
+	public Iterable<Board> getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * returns the moves needed to solve the puzzle
+	 *
+	 * @return Solution moves of the solution(null if unsolvable)
+	 */
+	public Solution getSolution() {
+		return sequence;
+	}
+
+	/**
+	 * returns the number of moves needed to go from the board to
+	 * the solution board
+	 *
+	 * @return int number of moves needed to find solution
+	 */
+	public int getSolutionLength() {
+		return sequence.length() - 1;
+	}
+}
@@ -1,7 +1,16 @@
 /**
  * Board.java is a class representing the state
  * of an n-puzzle board. The blank space is represented by
- * 0.
+ * 0. Boards may be rectangular (e.g. 2x4 or 3x5); the goal
+ * board has the pieces in order row by row with the blank
+ * in the bottom right corner.
+ *
+ * Every board keeps a Zobrist hash (the xor of a random key for each
+ * piece at its position) and the number of misplaced pieces, and a move
+ * only changes the two positions it touches, so both are updated in O(1)
+ * instead of recomputed. The goal test is then a check that no piece is
+ * misplaced, and boards with different hashes are known to differ without
+ * comparing their pieces.
  *
  * @author Jeremy Fang
  *
@@ -10,30 +19,40 @@
  * @date 8/21/2018
  */ 
 
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.SplittableRandom;
 
 public class Board {
 
+	private static final long SEED = 0x5DEECE66DL; // seed of the zobrist keys, fixed so hashes are repeatable
+	private static volatile long[][] keys = new long[17][]; // zobrist keys by number of tiles, replaced whole when a size is added
+
 	private int[][] board; // 2-D int array representing board
-	private int length; // side length of board
+	private int rows; // number of rows of board
+	private int length; // side length of board (number of columns)
 	private int manhattanDistance; // total manhattan distance of board
 	private int[] blank; // i and j values of the blank space in the board
+	private long[] zobrist; // zobrist[t * n + p] is the key of piece t at position p for n tiles
+	private long hash; // xor of the keys of every piece (the blank included) at its position
+	private int misplaced; // number of pieces (not counting the blank) away from where they belong
 
 	/**
 	 * creates new instance of Board state
 	 * using 2-D array provided as input.
-	 * note : array is assumed to be square
+	 * note : array is assumed to be rectangular
 	 */
 	public Board(int[][] board) {
 		this.board = new int[board.length][];
-		length = board.length;
+		rows = board.length;
+		length = board[0].length;
 		manhattanDistance = 0;
 		blank = new int[2];
 
-		for (int i = 0; i < board.length; i++) {
-			this.board[i] = new int[board.length];
-			for (int j = 0; j < board.length; j++) {
+		for (int i = 0; i < rows; i++) {
+			this.board[i] = new int[length];
+			for (int j = 0; j < length; j++) {
 				this.board[i][j] = board[i][j];
 				manhattanDistance += distance(i, j);
 
@@ -43,6 +62,111 @@ public class Board {
 				}
 			}
 		}
+
+		int n = rows * length;
+
+		zobrist = keys(n);
+		for (int p = 0; p < n; p++) {
+			int t = this.board[p / length][p % length];
+
+			hash ^= zobrist[t * n + p];
+			if (t != 0 && t != p + 1)
+				misplaced++;
+		}
+	}
+
+	/**
+	 * creates the board reached from other by sliding the piece at [i][j]
+	 * into the blank. Only the moved piece changes its distance, so the
+	 * manhattan distance is updated instead of recomputed.
+	 * note : [i][j] is assumed to be next to the blank of other
+	 *
+	 * @param other Board board the move is made from
+	 * @param i int x index of the piece being moved
+	 * @param j int y index of the piece being moved
+	 */
+	private Board(Board other, int i, int j) {
+		rows = other.rows;
+		length = other.length;
+		board = new int[rows][];
+		blank = new int[] {i, j};
+
+		for (int k = 0; k < rows; k++)
+			board[k] = other.board[k].clone();
+
+		manhattanDistance = other.manhattanDistance - other.distance(i, j);
+		board[other.blank[0]][other.blank[1]] = board[i][j];
+		board[i][j] = 0;
+		manhattanDistance += distance(other.blank[0], other.blank[1]);
+
+		zobrist = other.zobrist;
+		hash = other.hash;
+		misplaced = other.misplaced;
+		slid(board[other.blank[0]][other.blank[1]], i * length + j, other.blank[0] * length + other.blank[1]);
+	}
+
+	/**
+	 * helper function updates the hash and the number of misplaced pieces
+	 * after piece t slid from position from into the blank at position to
+	 *
+	 * @param t int piece that moved
+	 * @param from int position of the piece before the move (now the blank)
+	 * @param to int position of the piece after the move
+	 */
+	private void slid(int t, int from, int to) {
+		int n = rows * length;
+
+		hash ^= zobrist[t * n + from] ^ zobrist[t * n + to] ^ zobrist[to] ^ zobrist[from];
+
+		if (t != from + 1)
+			misplaced--;
+		if (t != to + 1)
+			misplaced++;
+	}
+
+	/**
+	 * helper function returns the zobrist keys for boards of n tiles, the
+	 * same keys every time for the same n. The table is read without a
+	 * lock; only a missing size takes the lock, and the table is copied
+	 * with the new keys and published whole, so readers never see a
+	 * partly filled entry.
+	 *
+	 * @param n int number of tiles including the blank
+	 * @return long[] keys indexed by piece * n + position
+	 */
+	private static long[] keys(int n) {
+		long[][] table = keys;
+
+		if (n < table.length && table[n] != null)
+			return table[n];
+
+		return addKeys(n);
+	}
+
+	/**
+	 * helper function makes the zobrist keys for boards of n tiles and
+	 * publishes a copy of the table holding them
+	 *
+	 * @param n int number of tiles including the blank
+	 * @return long[] keys indexed by piece * n + position
+	 */
+	private static synchronized long[] addKeys(int n) {
+		long[][] table = keys;
+
+		if (n < table.length && table[n] != null) // added by another thread while waiting
+			return table[n];
+
+		SplittableRandom random = new SplittableRandom(SEED + n);
+		long[] result = new long[n * n];
+
+		for (int k = 0; k < result.length; k++)
+			result[k] = random.nextLong();
+
+		table = Arrays.copyOf(table, Math.max(n + 1, table.length));
+		table[n] = result;
+		keys = table;
+
+		return result;
 	}
 
 	/**
@@ -78,22 +202,84 @@ public class Board {
 		return manhattanDistance;
 	}
 
+	/**
+	 * returns the number of pieces (not counting the blank) that are not
+	 * where they belong
+	 *
+	 * @return int number of misplaced pieces
+	 */
+	public int hamming() {
+		return misplaced;
+	}
+
+	/**
+	 * returns the zobrist hash of the board. Equal boards have equal
+	 * hashes and different boards of the same shape almost never do, so it
+	 * can key transposition tables as it is.
+	 *
+	 * @return long zobrist hash of the board
+	 */
+	public long zobrist() {
+		return hash;
+	}
+
 	/**
 	 * checks if the board is in the completed state. If so, return true
-	 * otherwise return false.
+	 * otherwise return false. Once every piece is where it belongs the
+	 * blank has to be too, so only the misplaced pieces are checked.
 	 *
 	 * @return boolean whether or not this board is the goal board
 	 */
 	public boolean isGoal() {
-		int check = 1;
+		return misplaced == 0;
+	}
 
-		for (int i = 0; i < length; i++)
-			for (int j = 0; j < length; j++)
-				if (board[i][j] != check++)
-					if (!(i == j && i == length - 1)) // special case : it's the empty tile
-						return false;
+	/**
+	 * checks whether or not the board can reach the goal board. Every move
+	 * keeps the parity of the number of inversions (pairs of pieces in the
+	 * wrong order, ignoring the blank) when the rows have an odd length. When
+	 * it is even, an up or down move flips that parity and moves the blank one
+	 * row, so the parity of inversions plus the rows between the blank and
+	 * the bottom row is kept instead. The goal board has both at 0.
+	 *
+	 * @return boolean whether or not the board is solvable
+	 */
+	public boolean isSolvable() {
+		long parity = inversions();
+
+		if (length % 2 == 0)
+			parity += rows - 1 - blank[0];
 
-		return true;
+		return parity % 2 == 0;
+	}
+
+	/**
+	 * helper function counts the pairs of pieces that are in the wrong order
+	 * when the board is read row by row, ignoring the blank. A Fenwick tree
+	 * over the piece values counts them in O(n log n) for n pieces.
+	 *
+	 * @return long number of inversions on the board
+	 */
+	private long inversions() {
+		int n = rows * length;
+		int[] tree = new int[n]; // tree over piece values 1 to n - 1
+		long result = 0;
+
+		for (int k = n - 1; k >= 0; k--) {
+			int val = board[k / length][k % length];
+
+			if (val == 0)
+				continue;
+
+			// counts the pieces after this one with a lower value
+			for (int i = val - 1; i > 0; i -= i & -i)
+				result += tree[i];
+
+			for (int i = val; i < n; i += i & -i)
+				tree[i]++;
+		}
+
+		return result;
 	}
 
 	/**
@@ -112,7 +298,10 @@ public class Board {
 		else {
 			Board temp = (Board) other;
 
-			for (int i = 0; i < length; i++)
+			if (hash != temp.hash || rows != temp.rows || length != temp.length)
+				return false;
+
+			for (int i = 0; i < rows; i++)
 				for (int j = 0; j < length; j++)
 					if (!(board[i][j] == temp.board[i][j]))
 						return false;
@@ -122,44 +311,86 @@ public class Board {
 
 	}
 
+	/**
+	 * returns a hash code built from the zobrist hash of the board so
+	 * that boards which are equal hash to the same value
+	 *
+	 * @return int hash code of the board
+	 */
+	public int hashCode() {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * returns whether or not every tile of the board fits in 4 bits,
+	 * which is the case for boards of up to 16 tiles (e.g. 4x4 or 3x5)
+	 *
+	 * @return boolean whether or not the board can be packed into a long
+	 */
+	public boolean isPackable() {
+		return rows * length <= 16;
+	}
+
+	/**
+	 * packs the board into a long with 4 bits per tile, reading the
+	 * tiles row by row starting from the lowest bits. Two boards of the
+	 * shape are equal exactly when their packed values are equal.
+	 * note : board is assumed to be packable
+	 *
+	 * @return long packed board
+	 */
+	public long pack() {
+		long result = 0;
+		int shift = 0;
+
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < length; j++) {
+				result |= (long) board[i][j] << shift;
+				shift += 4;
+			}
+
+		return result;
+	}
+
 	/**
 	 * individually checks all 4 possible moves to see if they are
 	 * possible in the current board. After checking if the move is
-	 * possible, it is added to the stack.
+	 * possible, it is added to the list.
 	 *
-	 * @return Iterable<Board> stack containing all possible moves from 
+	 * @return Iterable<Board> list containing all possible moves from 
 	 *		   this current board
 	 */
 	public Iterable<Board> findNeighbors() {
-		Stack<Board> result = new Stack<Board>();
+		ArrayList<Board> result = new ArrayList<Board>(4);
 
-		if (blank[0] != 0) {
-			exch(blank[0], blank[1], blank[0] - 1, blank[1]);
-			result.push(new Board(board));
-			exch(blank[0], blank[1], blank[0] - 1, blank[1]);
-		}
+		if (blank[0] != 0)
+			result.add(new Board(this, blank[0] - 1, blank[1]));
 
-		if (blank[0] != length - 1) {
-			exch(blank[0], blank[1], blank[0] + 1, blank[1]);
-			result.push(new Board(board));
-			exch(blank[0], blank[1], blank[0] + 1, blank[1]);
-		}
+		if (blank[0] != rows - 1)
+			result.add(new Board(this, blank[0] + 1, blank[1]));
 
-		if (blank[1] != 0) {
-			exch(blank[0], blank[1], blank[0], blank[1] - 1);
-			result.push(new Board(board));
-			exch(blank[0], blank[1], blank[0], blank[1] - 1);
-		}
+		if (blank[1] != 0)
+			result.add(new Board(this, blank[0], blank[1] - 1));
 
-		if (blank[1] != length - 1) {
-			exch(blank[0], blank[1], blank[0], blank[1] + 1);
-			result.push(new Board(board));
-			exch(blank[0], blank[1], blank[0], blank[1] + 1);
-		}
+		if (blank[1] != length - 1)
+			result.add(new Board(this, blank[0], blank[1] + 1));
 
 		return result;
 	}
 
+	/**
+	 * returns the neighbor reached by sliding the piece at position p
+	 * (row * length + col) into the blank, built the same way as the boards
+	 * of findNeighbors
+	 * note : p is assumed to be next to the blank
+	 *
+	 * @param p int position of the piece being moved
+	 * @return Board board after the move
+	 */
+	Board move(int p) {
+		return new Board(this, p / length, p % length);
+	}
+
 	/**
 	 * switches the values of board[i][j] and board[k][l]
 	 *
@@ -199,7 +430,8 @@ public class Board {
 	/**
 	 * changes the 2-D array of the board so that if the input
 	 * x and y are 1 square distance from the blank, the piece 
-	 * is moved to the blank.
+	 * is moved to the blank, keeping the manhattan distance, hash and
+	 * misplaced pieces up to date.
 	 * note: only used for the puzzle game and does not check
 	 * 	     that the move is valid(doesn't go off board).
 	 *
@@ -207,20 +439,23 @@ public class Board {
 	 * @param j int y index on the board
 	 */ 
 	public void move(int i, int j) {
-		if (i == blank[0])
-			if (j == blank[1] + 1 || j == blank[1] - 1)
-				exch(blank[0], blank[1], i, j);
-
-		if (j == blank[1])
-			if (i == blank[0] + 1 || i == blank[0] - 1)
-				exch(blank[0], blank[1], i, j);
+		boolean beside = (i == blank[0] && (j == blank[1] + 1 || j == blank[1] - 1))
+				|| (j == blank[1] && (i == blank[0] + 1 || i == blank[0] - 1));
+
+		if (beside) {
+			manhattanDistance -= distance(i, j);
+			exch(blank[0], blank[1], i, j);
+			manhattanDistance += distance(blank[0], blank[1]);
+			slid(board[blank[0]][blank[1]], i * length + j, blank[0] * length + blank[1]);
+		}
 
 		blank[0] = i;
 		blank[1] = j;
 	}
 
 	/**
-	 * returns the side length of the board
+	 * returns the side length of the board, the number of columns (and
+	 * so the length of each row) when the board is rectangular
 	 *
 	 * @return int side length of board
 	 */
@@ -228,6 +463,24 @@ public class Board {
 		return length;
 	}
 
+	/**
+	 * returns the number of rows of the board
+	 *
+	 * @return int number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * returns whether or not the board has as many rows as columns
+	 *
+	 * @return boolean whether or not the board is square
+	 */
+	public boolean isSquare() {
+		return rows == length;
+	}
+
 	/**
 	 * getter for the value of any index on the board
 	 *
@@ -258,7 +511,7 @@ public class Board {
 		StringBuilder result = new StringBuilder();
 		result.append("   ");
 
-		for (int i = 0; i < length; i++) {
+		for (int i = 0; i < rows; i++) {
 			for (int j = 0; j < length; j++)
 				if (board[i][j] < 10)
 					result.append(" " + board[i][j] + " ");
@@ -0,0 +1,307 @@
+/**
+ * BoardGenerator.java makes random boards of any side length, square or
+ * rectangular, from a seed, so the same seed always gives the same boards.
+ * There are two kinds:
+ *
+ * next gives a board picked uniformly from every solvable board. The pieces
+ * are shuffled with an unbiased Knuth shuffle and the parity of the result
+ * is found in linear time by counting the cycles of the permutation. Half
+ * of all shuffles are unsolvable; swapping the first two pieces that are
+ * not the blank turns each of them into a different solvable board, so the
+ * unsolvable half is fixed up instead of thrown away and every solvable
+ * board stays equally likely.
+ *
+ * scramble gives the board reached by a random walk of a number of moves
+ * from the goal that never undoes the move before it. Its solution is at
+ * most that many moves long, which keeps the boards at a chosen difficulty.
+ *
+ * The generator runs on a SplittableRandom, so split gives an independent
+ * generator for another thread, and the fill methods write pieces into an
+ * array given by the caller so generating needs no allocation at all.
+ * note : a generator is not thread safe, use split to share the work
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+public class BoardGenerator {
+
+	private int width; // side length of boards (number of columns)
+	private int rows; // number of rows of boards
+	private SplittableRandom random; // source of every choice
+	private int[] tiles; // pieces of the board being made
+	private int[] seen; // cycle marks used by the parity check
+	private int[] moves = new int[4]; // positions next to the blank during a walk
+	private int stamp; // mark of the current parity check in seen
+
+	/**
+	 * creates new instance of BoardGenerator with a random seed
+	 *
+	 * @param width int side length of boards
+	 */
+	public BoardGenerator(int width) {
+		this(width, width, new SplittableRandom());
+	}
+
+	/**
+	 * creates new instance of BoardGenerator with the given seed
+	 *
+	 * @param width int side length of boards
+	 * @param seed long seed of the boards
+	 */
+	public BoardGenerator(int width, long seed) {
+		this(width, width, new SplittableRandom(seed));
+	}
+
+	/**
+	 * creates new instance of BoardGenerator for rectangular boards with
+	 * the given seed
+	 *
+	 * @param rows int number of rows of boards
+	 * @param width int side length of boards (number of columns)
+	 * @param seed long seed of the boards
+	 */
+	public BoardGenerator(int rows, int width, long seed) {
+		this(rows, width, new SplittableRandom(seed));
+	}
+
+	/**
+	 * creates new instance of BoardGenerator over a random source
+	 */
+	private BoardGenerator(int rows, int width, SplittableRandom random) {
+		if (rows < 2 || width < 2)
+			throw new IllegalArgumentException("Error: boards must be at least 2x2");
+
+		this.rows = rows;
+		this.width = width;
+		this.random = random;
+		tiles = new int[rows * width];
+		seen = new int[rows * width];
+	}
+
+	/**
+	 * returns a new generator for the same side length whose boards do not
+	 * depend on the boards of this one, e.g. for another thread
+	 *
+	 * @return BoardGenerator independent generator
+	 */
+	public BoardGenerator split() {
+		return new BoardGenerator(rows, width, random.split());
+	}
+
+	/**
+	 * returns the side length of the boards made (number of columns)
+	 *
+	 * @return int side length of boards
+	 */
+	public int getLength() {
+		return width;
+	}
+
+	/**
+	 * returns the number of rows of the boards made
+	 *
+	 * @return int number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * writes the pieces of a uniformly random solvable board into result,
+	 * row by row with 0 for the blank
+	 *
+	 * @param result int[] array of length rows * width the pieces are written to
+	 */
+	public void fill(int[] result) {
+		int n = result.length;
+
+		for (int i = 0; i < n; i++)
+			result[i] = i;
+
+		for (int i = n - 1; i > 0; i--) { // Knuth shuffle
+			int j = random.nextInt(i + 1), temp = result[i];
+
+			result[i] = result[j];
+			result[j] = temp;
+		}
+
+		if (!isSolvable(result)) {
+			int a = result[0] == 0 ? 1 : 0, b = result[a + 1] == 0 ? a + 2 : a + 1;
+			int temp = result[a];
+
+			result[a] = result[b];
+			result[b] = temp;
+		}
+	}
+
+	/**
+	 * writes the pieces of the board reached by a random walk of the given
+	 * number of moves from the goal into result, row by row with 0 for the
+	 * blank. The walk never undoes the move before it.
+	 *
+	 * @param result int[] array of length rows * width the pieces are written to
+	 * @param length int number of moves in the walk
+	 */
+	public void fillScramble(int[] result, int length) {
+		int n = result.length, blank = n - 1, previous = -1;
+
+		for (int i = 0; i < n - 1; i++)
+			result[i] = i + 1;
+		result[blank] = 0;
+
+		for (int step = 0; step < length; step++) {
+			int count = 0, row = blank / width, col = blank % width;
+
+			if (row != 0 && blank - width != previous)
+				moves[count++] = blank - width;
+			if (row != rows - 1 && blank + width != previous)
+				moves[count++] = blank + width;
+			if (col != 0 && blank - 1 != previous)
+				moves[count++] = blank - 1;
+			if (col != width - 1 && blank + 1 != previous)
+				moves[count++] = blank + 1;
+
+			int p = moves[random.nextInt(count)];
+
+			result[blank] = result[p];
+			result[p] = 0;
+			previous = blank;
+			blank = p;
+		}
+	}
+
+	/**
+	 * returns a uniformly random solvable board
+	 *
+	 * @return Board random solvable board
+	 */
+	public Board next() {
+		fill(tiles);
+		return toBoard(tiles);
+	}
+
+	/**
+	 * returns the board reached by a random walk of the given number of
+	 * moves from the goal
+	 *
+	 * @param length int number of moves in the walk
+	 * @return Board scrambled board
+	 */
+	public Board scramble(int length) {
+		fillScramble(tiles, length);
+		return toBoard(tiles);
+	}
+
+	/**
+	 * returns a uniformly random solvable board packed into a long (see
+	 * Board.pack) without making a Board
+	 * note : only valid for boards with at most 16 pieces
+	 *
+	 * @return long packed random solvable board
+	 */
+	public long nextPacked() {
+		fill(tiles);
+		return pack(tiles);
+	}
+
+	/**
+	 * returns an endless stream of uniformly random solvable boards
+	 *
+	 * @return Stream<Board> random solvable boards
+	 */
+	public Stream<Board> stream() {
+		return Stream.generate(this::next);
+	}
+
+	/**
+	 * returns an endless stream of boards scrambled by random walks
+	 *
+	 * @param length int number of moves in each walk
+	 * @return Stream<Board> scrambled boards
+	 */
+	public Stream<Board> scrambles(int length) {
+		return Stream.generate(() -> scramble(length));
+	}
+
+	/**
+	 * returns an endless stream of uniformly random solvable boards packed
+	 * into longs (see Board.pack)
+	 * note : only valid for boards with at most 16 pieces
+	 *
+	 * @return LongStream packed random solvable boards
+	 */
+	public LongStream packed() {
+		if (tiles.length > 16)
+			throw new IllegalArgumentException("Error: only boards of at most 16 pieces can be packed");
+
+		return LongStream.generate(this::nextPacked);
+	}
+
+	/**
+	 * returns whether or not the pieces, read row by row, make a solvable
+	 * board. A move swaps the blank with a piece, which changes both the
+	 * parity of the permutation that takes every piece (the blank
+	 * included) to where it belongs and the parity of the distance of the
+	 * blank from its place, so a board is solvable exactly when the two
+	 * parities are equal.
+	 *
+	 * @param pieces int[] pieces of the board
+	 * @return boolean whether or not the board is solvable
+	 */
+	private boolean isSolvable(int[] pieces) {
+		int n = pieces.length, cycles = 0, blank = 0;
+
+		if (++stamp == 0) { // marks wrapped around, start over
+			Arrays.fill(seen, 0);
+			stamp = 1;
+		}
+
+		for (int p = 0; p < n; p++) {
+			if (pieces[p] == 0)
+				blank = p;
+			if (seen[p] == stamp)
+				continue;
+
+			cycles++;
+			for (int q = p; seen[q] != stamp; q = pieces[q] == 0 ? n - 1 : pieces[q] - 1)
+				seen[q] = stamp;
+		}
+
+		int distance = (rows - 1 - blank / width) + (width - 1 - blank % width);
+
+		return ((n - cycles) & 1) == (distance & 1);
+	}
+
+	/**
+	 * helper function builds a board from pieces read row by row
+	 */
+	private Board toBoard(int[] pieces) {
+		int[][] result = new int[rows][width];
+
+		for (int p = 0; p < pieces.length; p++)
+			result[p / width][p % width] = pieces[p];
+
+		return new Board(result);
+	}
+
+	/**
+	 * helper function packs pieces read row by row into a long
+	 */
+	private static long pack(int[] pieces) {
+		long result = 0;
+
+		for (int p = 0; p < pieces.length; p++)
+			result |= (long) pieces[p] << (p << 2);
+
+		return result;
+	}
+}
@@ -0,0 +1,242 @@
+/**
+ * BoardReader.java reads boards from a file one at a time, so a file of
+ * any number of boards can be handed to BatchSolve.solveEach without ever
+ * being held in memory. Two layouts are read:
+ *
+ * TEXT holds one board per line as its pieces read row by row, separated
+ * by spaces or commas, 0 for the blank. Empty lines and lines starting
+ * with # are skipped. If no shape is given, every board is taken to be
+ * square with as many pieces as the first board.
+ *
+ * BINARY holds fixed width records of one byte per piece read row by row,
+ * rows * cols bytes per board with nothing in between. It is read through
+ * a FileChannel into one large buffer, so reading costs a copy per record
+ * and no parsing.
+ *
+ * Only the raw record of the next board is read ahead; it is parsed by
+ * the call to next that returns it, so a malformed record only makes that
+ * one call throw an IllegalArgumentException and reading goes on with the
+ * record after it.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class BoardReader implements Iterator<Board>, Closeable {
+
+	private static final int BUFFER = 1 << 20; // bytes read from a binary file at a time
+
+	/**
+	 * layouts of board files
+	 */
+	public enum Format { TEXT, BINARY }
+
+	private int rows, cols; // shape of the boards (0 until known for square text boards)
+	private BufferedReader text; // source of TEXT boards (null otherwise)
+	private FileChannel channel; // source of BINARY boards (null otherwise)
+	private ByteBuffer buffer; // bytes read from channel and not used yet
+	private int[] pieces; // pieces of the board being read
+	private String record; // text line of the next board, not parsed yet (null at the end)
+	private boolean more; // whether or not a binary file has bytes left
+	private long line; // number of the last text line read
+
+	/**
+	 * opens a file of boards of the given shape
+	 *
+	 * @param file Path file being read
+	 * @param format Format layout of the file
+	 * @param rows int number of rows of the boards (0 for square boards
+	 * 		  whose size is read from the first board, TEXT only)
+	 * @param cols int number of columns of the boards (0 when rows is 0)
+	 */
+	public BoardReader(Path file, Format format, int rows, int cols) throws IOException {
+		if (rows < 0 || cols < 0 || (rows == 0) != (cols == 0))
+			throw new IllegalArgumentException("Error: invalid board shape");
+		if (format == Format.BINARY && rows == 0)
+			throw new IllegalArgumentException("Error: binary boards need a shape");
+
+		this.rows = rows;
+		this.cols = cols;
+
+		if (format == Format.TEXT)
+			text = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+		else {
+			channel = FileChannel.open(file, StandardOpenOption.READ);
+			buffer = ByteBuffer.allocateDirect(BUFFER - BUFFER % (rows * cols));
+			buffer.flip();
+		}
+
+		if (rows != 0)
+			pieces = new int[rows * cols];
+
+		advance();
+	}
+
+	/**
+	 * returns whether or not there is another board in the file
+	 *
+	 * @return boolean whether or not there is another board
+	 */
+	public boolean hasNext() {
+		return text != null ? record != null : more;
+	}
+
+	/**
+	 * returns the next board of the file. A record that is not a valid
+	 * board throws an IllegalArgumentException, and the following call
+	 * goes on with the record after it.
+	 *
+	 * @return Board next board
+	 */
+	public Board next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+
+		try {
+			if (text != null) {
+				String s = record;
+				long at = line;
+
+				advance();
+				return parseText(s, at);
+			}
+
+			if (buffer.remaining() < pieces.length) {
+				buffer.position(buffer.limit());
+				more = false;
+				throw new IllegalArgumentException("Error: file ends in the middle of a board");
+			}
+
+			for (int p = 0; p < pieces.length; p++)
+				pieces[p] = buffer.get() & 0xFF;
+
+			advance();
+			return toBoard();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * closes the file
+	 */
+	public void close() throws IOException {
+		if (text != null)
+			text.close();
+		if (channel != null)
+			channel.close();
+	}
+
+	/**
+	 * helper function reads the raw record of the next board without
+	 * parsing it
+	 */
+	private void advance() throws IOException {
+		if (text != null)
+			record = readLine();
+		else
+			more = fill();
+	}
+
+	/**
+	 * helper function reads the next line of a TEXT file that holds a board
+	 * (null at the end of the file)
+	 */
+	private String readLine() throws IOException {
+		String s;
+
+		do {
+			s = text.readLine();
+			line++;
+
+			if (s == null)
+				return null;
+
+			s = s.trim();
+		} while (s.isEmpty() || s.startsWith("#"));
+
+		return s;
+	}
+
+	/**
+	 * helper function parses the board on a line of a TEXT file
+	 *
+	 * @param s String line being parsed
+	 * @param line long number of the line
+	 */
+	private Board parseText(String s, long line) {
+		String[] parts = s.split("[\\s,]+");
+
+		if (pieces == null) { // square boards sized by the first one
+			int width = (int) Math.round(Math.sqrt(parts.length));
+
+			if (width * width != parts.length)
+				throw new IllegalArgumentException("Error: line " + line + " is not a square board");
+
+			rows = cols = width;
+			pieces = new int[parts.length];
+		}
+
+		if (parts.length != pieces.length)
+			throw new IllegalArgumentException("Error: line " + line + " does not have " + pieces.length + " pieces");
+
+		for (int p = 0; p < parts.length; p++)
+			pieces[p] = Integer.parseInt(parts[p]);
+
+		return toBoard();
+	}
+
+	/**
+	 * helper function refills the buffer of a BINARY file once it holds
+	 * less than a whole record and returns whether or not any bytes are left
+	 */
+	private boolean fill() throws IOException {
+		if (buffer.remaining() < pieces.length) {
+			buffer.compact();
+			while (buffer.hasRemaining() && channel.read(buffer) != -1) // fill the whole buffer
+				;
+			buffer.flip();
+		}
+
+		return buffer.remaining() > 0;
+	}
+
+	/**
+	 * helper function builds a board from the pieces read, checking that
+	 * every piece appears exactly once
+	 */
+	private Board toBoard() {
+		int[][] result = new int[rows][cols];
+		boolean[] seen = new boolean[pieces.length];
+
+		for (int p = 0; p < pieces.length; p++) {
+			int t = pieces[p];
+
+			if (t < 0 || t >= pieces.length || seen[t])
+				throw new IllegalArgumentException("Error: board " + Arrays.toString(pieces) + " is not a permutation");
+
+			seen[t] = true;
+			result[p / cols][p % cols] = t;
+		}
+
+		return new Board(result);
+	}
+}
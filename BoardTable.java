@@ -0,0 +1,227 @@
+/**
+ * BoardTable.java maps boards to the shortest depth they have been reached
+ * at during a search. Boards with at most 16 tiles are packed into a single
+ * long (see Board.pack) and stored in an open addressing table made of
+ * primitive arrays, so looking a board up neither allocates nor compares
+ * the tiles one by one. Larger boards fall back to a HashMap.
+ *
+ * A symmetric table keys each board on its canonical form (see Symmetry),
+ * so a board and its mirror share one entry. They are the same number of
+ * moves from the goal, so a search only needs to reach either of them once
+ * at the shortest depth, and the table holds about half as many boards.
+ * Only square boards have a mirror, rectangular ones are kept as they are.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class BoardTable {
+
+	private static final long EMPTY = -1L; // no packed board has every nibble set
+	private static final int DEFAULT_CAPACITY = 1 << 10; // starting number of slots (power of 2)
+
+	private long[] keys; // packed boards, EMPTY marks a free slot
+	private int[] depths; // depths[i] is the best depth of keys[i]
+	private int size;
+	private HashMap<Board, Integer> large; // boards that do not fit in a long
+	private boolean symmetric; // whether or not a board and its mirror share an entry
+
+	/**
+	 * creates new instance of an empty BoardTable
+	 */
+	public BoardTable() {
+		this(false);
+	}
+
+	/**
+	 * creates new instance of an empty BoardTable
+	 *
+	 * @param symmetric boolean whether or not a board and its mirror share an
+	 * 		  entry (only the Board and PackedBoard methods canonicalize, packed keys
+	 * 		  are used as given)
+	 */
+	public BoardTable(boolean symmetric) {
+		this.symmetric = symmetric;
+		keys = new long[DEFAULT_CAPACITY];
+		depths = new int[DEFAULT_CAPACITY];
+		large = new HashMap<Board, Integer>();
+		size = 0;
+
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * returns the number of boards in the table
+	 *
+	 * @return int number of boards stored
+	 */
+	public int size() {
+		return size + large.size();
+	}
+
+	/**
+	 * returns the best depth recorded for the board, or -1 if the board
+	 * has not been recorded
+	 *
+	 * @param board Board board being looked up
+	 * @return int best depth of the board (-1 if absent)
+	 */
+	public int get(Board board) {
+		if (!board.isPackable()) {
+			Integer depth = large.get(board);
+			return depth == null ? -1 : depth;
+		}
+
+		return get(key(board));
+	}
+
+	/**
+	 * returns the value recorded for a packed board (see Board.pack), or
+	 * -1 if the board has not been recorded
+	 *
+	 * @param key long packed board
+	 * @return int value recorded for the board (-1 if absent)
+	 */
+	public int get(long key) {
+		int mask = keys.length - 1;
+
+		for (int i = mix(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask)
+			if (keys[i] == key)
+				return depths[i];
+
+		return -1;
+	}
+
+	/**
+	 * records depth as the depth of the board if it is lower than the
+	 * depth already recorded (or the board is new)
+	 *
+	 * @param board Board board being recorded
+	 * @param depth int depth the board was reached at
+	 * @return boolean whether or not the table changed
+	 */
+	public boolean put(Board board, int depth) {
+		if (!board.isPackable()) {
+			Integer old = large.get(board);
+
+			if (old != null && old <= depth)
+				return false;
+
+			large.put(board, depth);
+			return true;
+		}
+
+		return put(key(board), depth);
+	}
+
+	/**
+	 * records depth as the depth of a packed board if it is lower than the
+	 * depth already recorded (or the board is new), without building a Board
+	 * note : only valid for boards with at most 16 tiles
+	 *
+	 * @param board PackedBoard board being recorded
+	 * @param depth int depth the board was reached at
+	 * @return boolean whether or not the table changed
+	 */
+	public boolean put(PackedBoard board, int depth) {
+		long packed = board.pack();
+		int width = board.getLength();
+
+		return put(symmetric && board.getRows() == width ? Symmetry.canonical(packed, width) : packed, depth);
+	}
+
+	/**
+	 * helper function returns the packed key of a packable board
+	 */
+	private long key(Board board) {
+		long packed = board.pack();
+
+		return symmetric && board.isSquare() ? Symmetry.canonical(packed, board.getLength()) : packed;
+	}
+
+	/**
+	 * records a value for a packed board (see Board.pack) if it is lower
+	 * than the value already recorded (or the board is new). Any non
+	 * negative value can be stored, e.g. a depth with extra bits below it.
+	 *
+	 * @param key long packed board
+	 * @param depth int value being recorded
+	 * @return boolean whether or not the table changed
+	 */
+	public boolean put(long key, int depth) {
+		if (2 * (size + 1) > keys.length) // keep the load factor at most 1/2
+			resize(keys.length * 2);
+
+		return insert(key, depth);
+	}
+
+	/**
+	 * helper function records depth for the packed board key
+	 * note : there is assumed to be a free slot
+	 *
+	 * @param key long packed board
+	 * @param depth int depth the board was reached at
+	 * @return boolean whether or not the table changed
+	 */
+	private boolean insert(long key, int depth) {
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+
+		for (; keys[i] != EMPTY; i = (i + 1) & mask)
+			if (keys[i] == key) {
+				if (depths[i] <= depth)
+					return false;
+
+				depths[i] = depth;
+				return true;
+			}
+
+		keys[i] = key;
+		depths[i] = depth;
+		size++;
+
+		return true;
+	}
+
+	/**
+	 * helper function moves every entry into tables with the given number of slots
+	 *
+	 * @param capacity int new number of slots (power of 2)
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldDepths = depths;
+
+		keys = new long[capacity];
+		depths = new int[capacity];
+		size = 0;
+		Arrays.fill(keys, EMPTY);
+
+		for (int i = 0; i < oldKeys.length; i++)
+			if (oldKeys[i] != EMPTY)
+				insert(oldKeys[i], oldDepths[i]);
+	}
+
+	/**
+	 * spreads the bits of a packed board so that boards which differ only
+	 * in a few tiles land in different slots (murmur3 finalizer)
+	 *
+	 * @param key long packed board
+	 * @return int mixed hash of the key
+	 */
+	static int mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+
+		return (int) key;
+	}
+}
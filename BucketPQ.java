@@ -0,0 +1,214 @@
+/**
+ * BucketPQ.java is a queue for elements whose keys are small non-negative
+ * integers. Every key gets its own bucket, so add, decreaseKey and
+ * removeMin are O(1) apart from skipping empty buckets, which happens
+ * at most once per key when keys only grow like they do in A*.
+ * Elements with the same key are removed last in first out, so the
+ * most recently generated (and usually deepest) state is expanded first.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class BucketPQ<E extends BucketPQ.Keyed> implements Frontier<E> {
+
+	/**
+	 * interface for elements that can be stored in a BucketPQ
+	 */
+	public interface Keyed {
+
+		/**
+		 * returns the integer key of the element (lower is removed first)
+		 *
+		 * @return int non-negative key of the element
+		 */
+		int key();
+	}
+
+	private ArrayList<ArrayList<E>> buckets; // buckets.get(k) holds the elements with key k
+	private HashMap<E, Long> index; // key (high 32 bits) and slot (low 32 bits) of every element
+	private int size;
+	private int low; // no bucket below this key holds an element
+
+	/**
+	 * creates new instance of BucketPQ
+	 */
+	public BucketPQ() {
+		buckets = new ArrayList<ArrayList<E>>();
+		index = new HashMap<E, Long>();
+		size = 0;
+		low = 0;
+	}
+
+	/**
+	 * returns the size of the queue.
+	 *
+	 * @return int number of elements left in the queue
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * returns whether or not the queue is empty
+	 *
+	 * @return boolean whether or not the queue is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * returns whether or not an element equal to val is in the queue
+	 *
+	 * @param val E value being looked for
+	 * @return boolean whether or not val is in the queue
+	 */
+	public boolean contains(E val) {
+		return index.containsKey(val);
+	}
+
+	/**
+	 * pushes val onto the bucket of its key.
+	 *
+	 * @param val E the value being inserted into the queue
+	 */
+	public void add(E val) {
+		if (val == null)
+			throw new IllegalArgumentException("Error: Null has been passed as arguement");
+		if (val.key() < 0)
+			throw new IllegalArgumentException("Error: keys must not be negative");
+		if (index.containsKey(val))
+			throw new IllegalArgumentException("Error: value is already in the queue");
+
+		push(val);
+		size++;
+	}
+
+	/**
+	 * replaces the element in the queue that is equal to val with val
+	 * if val has a lower key, moving it to the bucket of the new key.
+	 *
+	 * @param val E replacement for the queued element equal to it
+	 * @return boolean whether or not the queued element was replaced
+	 */
+	public boolean decreaseKey(E val) {
+		if (val == null)
+			throw new IllegalArgumentException("Error: Null has been passed as arguement");
+
+		Long slot = index.get(val);
+
+		if (slot == null || val.key() >= (int) (slot >>> 32))
+			return false;
+
+		remove(buckets.get((int) (slot >>> 32)), (int) (long) slot);
+		push(val);
+
+		return true;
+	}
+
+	/**
+	 * returns the minimum element in the queue and removes
+	 * it unless the queue is empty. If it is empty then null is
+	 * returned instead
+	 *
+	 * @return E minimum value in the queue
+	 */
+	public E removeMin() {
+		if (size == 0)
+			return null;
+
+		ArrayList<E> bucket = buckets.get(skip());
+		E val = bucket.remove(bucket.size() - 1);
+
+		index.remove(val);
+		size--;
+
+		return val;
+	}
+
+	/**
+	 * returns the minimum element in the queue. If the
+	 * queue is empty then null is returned.
+	 *
+	 * @return E minimum element of the queue
+	 */
+	public E min() {
+		if (size == 0)
+			return null;
+
+		ArrayList<E> bucket = buckets.get(skip());
+
+		return bucket.get(bucket.size() - 1);
+	}
+
+	/**
+	 * helper function that moves low up to the first non empty bucket
+	 * note : queue is assumed to not be empty
+	 *
+	 * @return int key of the first non empty bucket
+	 */
+	private int skip() {
+		while (buckets.get(low).isEmpty())
+			low++;
+
+		return low;
+	}
+
+	/**
+	 * helper function pushes val on top of the bucket for its key,
+	 * creating buckets up to that key if needed
+	 *
+	 * @param val E value being pushed
+	 */
+	private void push(E val) {
+		int key = val.key();
+
+		while (buckets.size() <= key)
+			buckets.add(new ArrayList<E>());
+
+		ArrayList<E> bucket = buckets.get(key);
+
+		index.put(val, slot(key, bucket.size()));
+		bucket.add(val);
+
+		if (key < low)
+			low = key;
+	}
+
+	/**
+	 * helper function removes slot i of the bucket by moving the top
+	 * of the bucket into it
+	 *
+	 * @param bucket ArrayList<E> bucket the element is removed from
+	 * @param i int slot being removed
+	 */
+	private void remove(ArrayList<E> bucket, int i) {
+		E top = bucket.remove(bucket.size() - 1);
+
+		index.remove(top);
+
+		if (i < bucket.size()) {
+			index.remove(bucket.get(i));
+			bucket.set(i, top);
+			index.put(top, slot(top.key(), i));
+		}
+	}
+
+	/**
+	 * helper function packs a key and a slot into the value stored in index
+	 *
+	 * @param key int key of the bucket
+	 * @param i int slot inside the bucket
+	 * @return long packed key and slot
+	 */
+	private static long slot(int key, int i) {
+		return ((long) key << 32) | i;
+	}
+}
@@ -0,0 +1,509 @@
+/**
+ * DiskBFS.java runs a breadth first search over every board reachable
+ * from a start board while keeping the search on disk instead of in memory,
+ * so whole spaces far larger than RAM (e.g. large parts of the 4x4 puzzle)
+ * can be swept layer by layer.
+ *
+ * Each layer is a file of the packed boards at that depth, sorted and
+ * stored as the differences between neighbouring boards in a variable
+ * length encoding, which keeps a dense layer at a few bytes per board. The
+ * next layer is found by expanding the current one into memory sized runs
+ * that are sorted and written out, then merging the runs while dropping
+ * duplicates and every board of the previous layer. Every move changes the
+ * parity of the blank position, so a board can never be in the same layer
+ * as its neighbor and only the previous layer needs to be checked (frontier
+ * search); older layers are deleted unless asked to be kept.
+ *
+ * Layers are written to a temporary file and renamed once complete, and a
+ * small progress file records every finished layer and its size, so a
+ * search that is stopped (or interrupted, see Solver.checkInterrupted) can
+ * be started again over the same directory and picks up after the last
+ * finished layer.
+ * note : boards are packed into longs, so only boards of at most 16 pieces (e.g. 4x4, 3x5 or 2x8) are supported
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongConsumer;
+
+public class DiskBFS {
+
+	private static final String PROGRESS = "progress"; // name of the progress file
+	private static final int FAN_IN = 64; // most runs merged at once
+	private static final int BUFFER = 1 << 16; // bytes buffered per open file
+
+	private Path directory; // where layers, runs and progress are kept
+	private PackedBoard scratch; // board being expanded
+	private long start; // packed start board
+	private long[] buffer; // boards generated but not yet written to a run
+	private boolean keepLayers; // whether or not finished layers are kept
+	private List<Long> sizes = new ArrayList<Long>(); // number of boards in each finished layer
+	private int runs; // runs written for the layer being built
+
+	/**
+	 * prepares a search from board in directory, keeping at most memory
+	 * boards in memory at once. If directory already holds the progress of
+	 * a search from the same board, the search resumes from it.
+	 *
+	 * @param directory Path directory the search is kept in (created if needed)
+	 * @param board Board board the search starts from (at most 16 pieces)
+	 * @param memory int number of boards buffered before a run is written
+	 * @param keepLayers boolean whether or not to keep every layer instead of
+	 * 		  only the last two
+	 */
+	public DiskBFS(Path directory, Board board, int memory, boolean keepLayers) throws IOException {
+		if (!board.isPackable())
+			throw new IllegalArgumentException("Error: disk search needs boards of at most 16 pieces");
+		if (memory < 4)
+			throw new IllegalArgumentException("Error: memory must hold at least 4 boards");
+
+		this.directory = directory;
+		this.keepLayers = keepLayers;
+		scratch = new PackedBoard(board);
+		start = board.pack();
+		buffer = new long[memory];
+
+		Files.createDirectories(directory);
+		clean();
+
+		Path progress = directory.resolve(PROGRESS);
+
+		if (Files.exists(progress))
+			resume(progress, board.getLength());
+		else {
+			try (Writer out = new Writer(directory.resolve("layer-0.tmp"))) {
+				out.add(start);
+			}
+			finish(0, 1);
+		}
+	}
+
+	/**
+	 * returns the path of the file holding the boards at a depth. The file
+	 * only exists once the layer is finished and while it is kept.
+	 *
+	 * @param depth int depth of the layer
+	 * @return Path file of the layer
+	 */
+	public Path layer(int depth) {
+		return directory.resolve("layer-" + depth);
+	}
+
+	/**
+	 * returns the number of boards in each finished layer, starting at depth 0
+	 *
+	 * @return long[] number of boards at each depth
+	 */
+	public long[] getSizes() {
+		long[] result = new long[sizes.size()];
+
+		for (int i = 0; i < result.length; i++)
+			result[i] = sizes.get(i);
+
+		return result;
+	}
+
+	/**
+	 * returns whether or not the search has reached every board
+	 *
+	 * @return boolean whether or not the last finished layer is empty
+	 */
+	public boolean isComplete() {
+		return sizes.get(sizes.size() - 1) == 0;
+	}
+
+	/**
+	 * builds layers until the search is complete or maxDepth is finished
+	 *
+	 * @param maxDepth int deepest layer to build
+	 * @return long[] number of boards at each depth finished so far
+	 */
+	public long[] run(int maxDepth) throws IOException {
+		while (!isComplete() && sizes.size() <= maxDepth)
+			expand(sizes.size() - 1);
+
+		return getSizes();
+	}
+
+	/**
+	 * calls action with every board in a layer file, in sorted order
+	 *
+	 * @param file Path layer file
+	 * @param action LongConsumer called with every packed board
+	 */
+	public static void forEach(Path file, LongConsumer action) throws IOException {
+		try (Reader in = new Reader(file)) {
+			while (in.hasNext())
+				action.accept(in.next());
+		}
+	}
+
+	/**
+	 * helper function builds layer depth + 1 from layer depth
+	 *
+	 * @param depth int depth of the last finished layer
+	 */
+	private void expand(int depth) throws IOException {
+		int count = 0, nodes = 0;
+		int[] moves = new int[4];
+
+		runs = 0;
+
+		try (Reader in = new Reader(layer(depth))) {
+			while (in.hasNext()) {
+				if ((++nodes & 0xFFF) == 0)
+					Solver.checkInterrupted();
+
+				long board = in.next();
+				scratch.load(board);
+
+				int blank = scratch.getBlank(), n = scratch.neighbors(moves);
+
+				if (count + n > buffer.length) {
+					spill(count);
+					count = 0;
+				}
+
+				for (int k = 0; k < n; k++)
+					buffer[count++] = PackedBoard.move(board, blank, moves[k]);
+			}
+		}
+
+		if (count > 0 || runs == 0)
+			spill(count);
+
+		List<Path> pending = new ArrayList<Path>();
+
+		for (int i = 0; i < runs; i++)
+			pending.add(runFile(i));
+
+		// merges groups of runs until few enough are left to open at once
+		while (pending.size() > FAN_IN) {
+			List<Path> merged = new ArrayList<Path>();
+
+			for (int i = 0; i < pending.size(); i += FAN_IN) {
+				Path out = runFile(runs++);
+
+				merge(pending.subList(i, Math.min(i + FAN_IN, pending.size())), null, out);
+				merged.add(out);
+			}
+
+			pending = merged;
+		}
+
+		Path previous = depth == 0 ? null : layer(depth - 1);
+		long size = merge(pending, previous, directory.resolve("layer-" + (depth + 1) + ".tmp"));
+
+		finish(depth + 1, size);
+
+		if (!keepLayers && previous != null)
+			Files.deleteIfExists(previous);
+	}
+
+	/**
+	 * helper function sorts the first count boards of the buffer, drops
+	 * duplicates and writes them to the next run
+	 */
+	private void spill(int count) throws IOException {
+		Arrays.sort(buffer, 0, count);
+
+		try (Writer out = new Writer(runFile(runs++))) {
+			for (int i = 0; i < count; i++)
+				if (i == 0 || buffer[i] != buffer[i - 1])
+					out.add(buffer[i]);
+		}
+	}
+
+	/**
+	 * helper function merges sorted files into out, writing every board
+	 * once and skipping boards found in exclude (if not null). The input
+	 * files are deleted afterwards.
+	 *
+	 * @return long number of boards written
+	 */
+	private static long merge(List<Path> files, Path exclude, Path out) throws IOException {
+		PriorityQueue<Reader> queue = new PriorityQueue<Reader>();
+		Reader skip = null;
+		long written = 0;
+
+		try (Writer writer = new Writer(out)) {
+			for (Path file : files) {
+				Reader in = new Reader(file);
+
+				if (in.hasNext()) {
+					in.next();
+					queue.add(in);
+				}
+				else
+					in.close();
+			}
+
+			if (exclude != null)
+				skip = new Reader(exclude);
+
+			long last = 0;
+			boolean first = true;
+
+			while (!queue.isEmpty()) {
+				Reader min = queue.poll();
+				long board = min.current;
+
+				if (min.hasNext()) {
+					min.next();
+					queue.add(min);
+				}
+				else
+					min.close();
+
+				if (!first && board == last)
+					continue;
+
+				first = false;
+				last = board;
+
+				while (skip != null && skip.hasCurrent() && skip.current < board)
+					skip.advance();
+
+				if (skip == null || !skip.hasCurrent() || skip.current != board) {
+					writer.add(board);
+					written++;
+				}
+			}
+		}
+		finally {
+			for (Reader in : queue)
+				in.close();
+			if (skip != null)
+				skip.close();
+		}
+
+		for (Path file : files)
+			Files.deleteIfExists(file);
+
+		return written;
+	}
+
+	/**
+	 * helper function renames a finished layer into place and records it
+	 * in the progress file
+	 */
+	private void finish(int depth, long size) throws IOException {
+		Files.move(directory.resolve("layer-" + depth + ".tmp"), layer(depth),
+				StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		sizes.add(size);
+
+		Path temp = directory.resolve(PROGRESS + ".tmp");
+
+		try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			out.write(scratch.getLength() + " " + start);
+			out.newLine();
+			for (long s : sizes) {
+				out.write(Long.toString(s));
+				out.newLine();
+			}
+		}
+
+		Files.move(temp, directory.resolve(PROGRESS),
+				StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * helper function reads the progress file of an earlier search
+	 */
+	private void resume(Path progress, int width) throws IOException {
+		List<String> lines = Files.readAllLines(progress, StandardCharsets.UTF_8);
+
+		if (lines.isEmpty() || !lines.get(0).equals(width + " " + start))
+			throw new IOException("Error: " + directory + " holds a search from another board");
+
+		for (int i = 1; i < lines.size(); i++)
+			sizes.add(Long.parseLong(lines.get(i).trim()));
+
+		int last = sizes.size() - 1;
+
+		if (!Files.exists(layer(last)) || (last > 0 && !Files.exists(layer(last - 1))))
+			throw new IOException("Error: " + directory + " is missing the last finished layers");
+	}
+
+	/**
+	 * helper function deletes runs and temporary files left by a search
+	 * that was stopped part way through a layer
+	 */
+	private void clean() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{tmp,run}")) {
+			for (Path file : files)
+				Files.delete(file);
+		}
+	}
+
+	/**
+	 * helper function returns the path of a run file
+	 */
+	private Path runFile(int i) {
+		return directory.resolve(i + ".run");
+	}
+
+	/**
+	 * writes sorted boards to a file as variable length differences
+	 */
+	private static class Writer implements AutoCloseable {
+		private FileChannel channel;
+		private ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER);
+		private long last; // last board written
+
+		/** creates new instance of Writer over a new file **/
+		private Writer(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		/** writes a board, which has to be larger than the last one **/
+		private void add(long board) throws IOException {
+			long delta = board - last; // unsigned difference, wraps past Long.MAX_VALUE
+
+			if (bytes.remaining() < 10)
+				flush();
+
+			while ((delta & ~0x7FL) != 0) {
+				bytes.put((byte) ((delta & 0x7F) | 0x80));
+				delta >>>= 7;
+			}
+
+			bytes.put((byte) delta);
+			last = board;
+		}
+
+		/** writes out the buffered bytes **/
+		private void flush() throws IOException {
+			bytes.flip();
+			while (bytes.hasRemaining())
+				channel.write(bytes);
+			bytes.clear();
+		}
+
+		/** writes out the buffered bytes and forces them to disk **/
+		public void close() throws IOException {
+			try {
+				flush();
+				channel.force(false);
+			}
+			finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * reads boards written by Writer in order
+	 */
+	private static class Reader implements AutoCloseable, Comparable<Reader> {
+		private FileChannel channel;
+		private ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER);
+		private long current; // last board read
+		private boolean started, ended; // whether or not a board was read / the file is used up
+
+		/** creates new instance of Reader over a file **/
+		private Reader(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.READ);
+			bytes.limit(0);
+		}
+
+		/** returns whether or not there is another board **/
+		private boolean hasNext() throws IOException {
+			if (!bytes.hasRemaining()) {
+				bytes.clear();
+				while (bytes.hasRemaining() && channel.read(bytes) != -1);
+				bytes.flip();
+			}
+
+			return bytes.hasRemaining();
+		}
+
+		/** reads the next board **/
+		private long next() throws IOException {
+			long delta = 0;
+			int shift = 0;
+			byte b;
+
+			do {
+				hasNext();
+				b = bytes.get();
+				delta |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+
+			started = true;
+			return current += delta;
+		}
+
+		/** returns whether or not current holds a board not yet passed over **/
+		private boolean hasCurrent() throws IOException {
+			if (!started && !ended)
+				advance();
+
+			return !ended;
+		}
+
+		/** moves current to the next board, or marks the reader used up **/
+		private void advance() throws IOException {
+			if (hasNext())
+				next();
+			else
+				ended = true;
+		}
+
+		/** orders readers by their current board **/
+		public int compareTo(Reader other) {
+			return Long.compare(current, other.current);
+		}
+
+		/** closes the file **/
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	/**
+	 * runs a search from the goal board and prints the size of every layer.
+	 * usage : java DiskBFS <width> <directory> [<memory> [<maxDepth>]]
+	 */
+	public static void main(String[] args) throws IOException {
+		int width = Integer.parseInt(args[0]);
+		int memory = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 24;
+		int maxDepth = args.length > 3 ? Integer.parseInt(args[3]) : Integer.MAX_VALUE;
+		int[][] goal = new int[width][width];
+
+		for (int p = 0; p < width * width - 1; p++)
+			goal[p / width][p % width] = p + 1;
+
+		long begin = System.currentTimeMillis();
+		long[] sizes = new DiskBFS(Paths.get(args[1]), new Board(goal), memory, false).run(maxDepth);
+		long total = 0;
+
+		for (int d = 0; d < sizes.length; d++) {
+			System.out.println(d + "\t" + sizes[d]);
+			total += sizes[d];
+		}
+
+		System.out.println("Reached " + total + " boards in " + (System.currentTimeMillis() - begin) + " ms");
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Frontier.java is the interface shared by the priority queues that
+ * Solve can use to hold the search nodes that are waiting to be expanded.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public interface Frontier<E> {
+
+	/**
+	 * returns the number of elements in the queue
+	 *
+	 * @return int number of elements left in the queue
+	 */
+	int size();
+
+	/**
+	 * returns whether or not the queue is empty
+	 *
+	 * @return boolean whether or not the queue is empty
+	 */
+	boolean isEmpty();
+
+	/**
+	 * returns whether or not an element equal to val is in the queue
+	 *
+	 * @param val E value being looked for
+	 * @return boolean whether or not val is in the queue
+	 */
+	boolean contains(E val);
+
+	/**
+	 * inserts val into the queue
+	 *
+	 * @param val E value being inserted into the queue
+	 */
+	void add(E val);
+
+	/**
+	 * replaces the queued element equal to val with val if val has
+	 * a lower key
+	 *
+	 * @param val E replacement for the queued element equal to it
+	 * @return boolean whether or not the queued element was replaced
+	 */
+	boolean decreaseKey(E val);
+
+	/**
+	 * removes and returns the minimum element (null if empty)
+	 *
+	 * @return E minimum element of the queue
+	 */
+	E removeMin();
+
+	/**
+	 * returns the minimum element without removing it (null if empty)
+	 *
+	 * @return E minimum element of the queue
+	 */
+	E min();
+}
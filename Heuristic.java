@@ -0,0 +1,49 @@
+/**
+ * Heuristic.java is the interface for estimates of the number of moves
+ * left from a board to the goal board. The solvers only find shortest
+ * solutions when the estimate never goes over the real number of moves.
+ * One heuristic may be shared by many solvers running at once, so
+ * implementations must not keep any state that changes during a search.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public interface Heuristic {
+
+	/**
+	 * returns a lower bound on the number of moves from board to the goal
+	 *
+	 * @param board Board board being estimated
+	 * @return int estimated number of moves left
+	 */
+	int estimate(Board board);
+
+	/**
+	 * returns a lower bound on the number of moves from board to the goal
+	 *
+	 * @param board PackedBoard board being estimated
+	 * @return int estimated number of moves left
+	 */
+	int estimate(PackedBoard board);
+
+	/**
+	 * returns the estimate for board right after the piece at from was slid
+	 * into the blank at to, given the estimate from before the move. By
+	 * default the board is estimated from scratch; heuristics that only
+	 * need to look at the rows or columns the piece moved between override
+	 * this to save work in the inner loop of IDASolve.
+	 *
+	 * @param board PackedBoard board after the move
+	 * @param estimate int estimate of the board before the move
+	 * @param from int position of the piece before the move (now the blank)
+	 * @param to int position of the piece after the move
+	 * @return int estimated number of moves left after the move
+	 */
+	default int update(PackedBoard board, int estimate, int from, int to) {
+		return estimate(board);
+	}
+}
@@ -0,0 +1,231 @@
+/**
+ * IDASolve.java uses the iterative deepening A* (IDA*) algorithm to find
+ * the shortest path from the input board to the solved board. Instead of
+ * keeping every board it has seen, it runs depth first searches that stop
+ * once depth + estimate goes over a bound, raising the bound after every
+ * search. Only the current path is kept, so memory stays O(depth) and
+ * boards too large for Solve (4x4 and up) can be solved.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public class IDASolve implements Solver {
+
+	private static final int FOUND = -1; // returned by search once the goal is reached
+
+	private boolean solvable;
+	private Solution sequence; // moves that reach the solution(null if it does not exist)
+	private SearchStats stats = new SearchStats(); // counters of the search
+
+	private int[] path; // path[d] is the position slid into the blank at depth d
+	private int length; // number of moves in the path that was found
+	private int[][] moves; // moves[d] is the neighbor buffer for depth d
+	private Heuristic heuristic; // estimate of the moves left from a board
+
+	/**
+	 * solves the board with IDA* using manhattan distance as the heuristic
+	 *
+	 * @param board Board board being solved
+	 */
+	public IDASolve(Board board) {
+		this(board, new ManhattanHeuristic());
+	}
+
+	/**
+	 * solves the board with IDA* using the given heuristic. Unsolvable
+	 * boards are found by their parity (see Board.isSolvable) without searching.
+	 *
+	 * @param board Board board being solved
+	 * @param heuristic Heuristic estimate of the moves left from a board
+	 */
+	public IDASolve(Board board, Heuristic heuristic) {
+		long time = System.nanoTime();
+		PackedBoard start = new PackedBoard(board);
+		int estimate, bound;
+
+		this.heuristic = heuristic;
+		estimate = bound = heuristic.estimate(start);
+		stats.evaluations++;
+
+		solvable = board.isSolvable();
+
+		if (solvable == false) { // if the board is not solvable, sequence is null
+			sequence = null;
+			stats.setupNanos = System.nanoTime() - time;
+			return;
+		}
+
+		path = new int[16];
+		moves = new int[16][4];
+		stats.setupNanos = System.nanoTime() - time;
+		time += stats.setupNanos;
+
+		do
+			stats.iterations++;
+		while ((bound = search(start, 0, bound, -1, estimate)) != FOUND);
+
+		stats.moves = length;
+		stats.searchNanos = System.nanoTime() - time;
+		time += stats.searchNanos;
+
+		sequence = replay(board);
+		stats.pathNanos = System.nanoTime() - time;
+	}
+
+	/**
+	 * depth first search below board that stops at boards whose depth +
+	 * estimate is over bound. Moves are made on board in place and undone
+	 * on the way back, and the move that would undo the last one is skipped.
+	 * Once the goal is found the board is left on the goal and path holds
+	 * the moves that led there.
+	 *
+	 * @param board PackedBoard board at the current depth
+	 * @param depth int number of moves made already
+	 * @param bound int largest depth + estimate that is searched
+	 * @param previous int position of the blank before the last move (-1 if none)
+	 * @param estimate int estimate of the moves left from board
+	 * @return int FOUND if the goal was reached, otherwise the smallest
+	 *		   depth + estimate over bound that was seen
+	 */
+	private int search(PackedBoard board, int depth, int bound, int previous, int estimate) {
+		int f = depth + estimate;
+
+		if ((stats.generated & 0xFFF) == 0) // every 4096 boards
+			Solver.checkInterrupted();
+
+		if (f > bound)
+			return f;
+		if (board.isGoal()) {
+			length = depth;
+			return FOUND;
+		}
+
+		if (depth == path.length)
+			grow();
+
+		stats.expanded++;
+		stats.open(depth + 1); // the open boards of IDA* are the ones on the current path
+
+		int[] neighbors = moves[depth];
+		int count = board.neighbors(neighbors), min = Integer.MAX_VALUE;
+		int blank = board.getBlank();
+
+		for (int k = 0; k < count; k++) {
+			int p = neighbors[k];
+
+			stats.generated++;
+
+			if (p == previous) {
+				stats.duplicates++;
+				continue;
+			}
+
+			board.move(p);
+			path[depth] = p;
+			stats.evaluations++;
+
+			int t = search(board, depth + 1, bound, blank, heuristic.update(board, estimate, p, blank));
+
+			if (t == FOUND)
+				return FOUND;
+
+			board.move(blank);
+
+			if (t < min)
+				min = t;
+		}
+
+		return min;
+	}
+
+	/**
+	 * helper function doubles the room for the path and the neighbor buffers
+	 */
+	private void grow() {
+		int[] tpath = new int[path.length * 2];
+		int[][] tmoves = new int[path.length * 2][];
+
+		for (int d = 0; d < path.length; d++) {
+			tpath[d] = path[d];
+			tmoves[d] = moves[d];
+		}
+
+		for (int d = path.length; d < tmoves.length; d++)
+			tmoves[d] = new int[4];
+
+		path = tpath;
+		moves = tmoves;
+	}
+
+	/**
+	 * turns the positions slid into the blank along the path that was
+	 * found into the directions the blank moved in
+	 *
+	 * @param board Board board the path starts from
+	 * @return Solution moves from the board to the goal board
+	 */
+	private Solution replay(Board board) {
+		byte[] result = new byte[length];
+		int width = board.getLength(), blank = board.getBlankIndex()[0] * width + board.getBlankIndex()[1];
+
+		for (int d = 0; d < length; d++) {
+			result[d] = (byte) Solution.direction(blank, path[d], width);
+			blank = path[d];
+		}
+
+		return new Solution(board, result);
+	}
+
+	/**
+	 * returns the counters collected while searching. IDA* keeps no closed
+	 * set, and its open boards are the ones on the current path.
+	 *
+	 * @return SearchStats counters of the search
+	 */
+	public SearchStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * returns whether or not the board was solvable
+	 *
+	 * @return boolean whether or not the board was solvable
+	 */
+	public boolean isSolvable() {
+		return solvable;
+	}
+
+	/**
+	 * returns an Iterable<Board> that replays the sequence of moves that
+	 * need to be made to solve the puzzle, one board at a time
+	 *
+	 * @return Iterable<Board> boards the moves needed to solve the
+	 * 		   puzzle pass through(null if unsolvable)
+	 */
+	public Iterable<Board> getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * returns the moves needed to solve the puzzle
+	 *
+	 * @return Solution moves of the solution(null if unsolvable)
+	 */
+	public Solution getSolution() {
+		return sequence;
+	}
+
+	/**
+	 * returns the number of moves needed to go from the board to
+	 * the solution board
+	 *
+	 * @return int number of moves needed to find solution
+	 */
+	public int getSolutionLength() {
+		return sequence.length() - 1;
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * LinearConflictHeuristic.java estimates the moves left as the manhattan
+ * distance plus 2 moves for every piece that has to leave its line. When
+ * two pieces are in the row (or column) they belong in but in the wrong
+ * order, one of them has to step out of the line and back in, which the
+ * manhattan distance does not count. For each line the fewest pieces that
+ * have to leave is the number of pieces that belong there minus the
+ * longest run of them already in increasing order.
+ *
+ * A move only changes the two rows (for an up or down move) or the two
+ * columns (for a left or right move) the piece moved between, so update
+ * only looks at those two lines. The pieces of a line are read into
+ * scratch arrays kept per thread, so estimating allocates nothing even
+ * when one heuristic is shared by many solvers.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public class LinearConflictHeuristic implements Heuristic {
+
+	private ThreadLocal<int[][]> scratch = // tiles, goals and lengths arrays of each thread, grown as needed
+			ThreadLocal.withInitial(() -> new int[][] { new int[16], new int[4], new int[4] });
+
+	/**
+	 * returns the manhattan distance plus the linear conflicts of the board
+	 *
+	 * @param board Board board being estimated
+	 * @return int estimated number of moves left
+	 */
+	public int estimate(Board board) {
+		int width = board.getLength(), rows = board.getRows();
+		int[][] arrays = scratch(rows, width);
+		int[] tiles = arrays[0];
+
+		for (int p = 0; p < rows * width; p++)
+			tiles[p] = board.getIndex(p / width, p % width);
+
+		return board.manhattan() + 2 * conflicts(tiles, rows, width, arrays[1], arrays[2]);
+	}
+
+	/**
+	 * returns the manhattan distance plus the linear conflicts of the board
+	 *
+	 * @param board PackedBoard board being estimated
+	 * @return int estimated number of moves left
+	 */
+	public int estimate(PackedBoard board) {
+		int width = board.getLength(), rows = board.getRows();
+		int[][] arrays = scratch(rows, width);
+		int[] tiles = arrays[0];
+
+		for (int p = 0; p < rows * width; p++)
+			tiles[p] = board.tile(p);
+
+		return board.manhattan() + 2 * conflicts(tiles, rows, width, arrays[1], arrays[2]);
+	}
+
+	/**
+	 * updates the estimate by the change in manhattan distance and the
+	 * change in conflicts of the two lines the piece moved between
+	 *
+	 * @param board PackedBoard board after the move
+	 * @param estimate int estimate of the board before the move
+	 * @param from int position of the piece before the move (now the blank)
+	 * @param to int position of the piece after the move
+	 * @return int estimated number of moves left after the move
+	 */
+	public int update(PackedBoard board, int estimate, int from, int to) {
+		int width = board.getLength(), rows = board.getRows();
+		int change = -board.delta(to); // sliding the piece back would undo the manhattan change
+		boolean row = from / width != to / width; // up or down moves change rows
+		int[][] arrays = scratch(rows, width);
+		int[] goals = arrays[1], lengths = arrays[2];
+
+		// conflicts after the move minus conflicts before it (the piece back at from)
+		change += 2 * (line(board, row, from, rows, width, -1, -1, goals, lengths)
+					 - line(board, row, from, rows, width, from, to, goals, lengths));
+		change += 2 * (line(board, row, to, rows, width, -1, -1, goals, lengths)
+					 - line(board, row, to, rows, width, from, to, goals, lengths));
+
+		return estimate + change;
+	}
+
+	/**
+	 * helper function returns the scratch arrays of the current thread,
+	 * growing them to fit a board of the given shape
+	 *
+	 * @param rows int number of rows of board
+	 * @param width int side length of board (number of columns)
+	 * @return int[][] tiles, goals and lengths arrays
+	 */
+	private int[][] scratch(int rows, int width) {
+		int[][] arrays = scratch.get();
+		int length = Math.max(rows, width);
+
+		if (arrays[0].length < rows * width)
+			arrays[0] = new int[rows * width];
+		if (arrays[1].length < length) {
+			arrays[1] = new int[length];
+			arrays[2] = new int[length];
+		}
+
+		return arrays;
+	}
+
+	/**
+	 * helper function adds up the conflicts of every row and column
+	 *
+	 * @param tiles int[] pieces of the board row by row
+	 * @param rows int number of rows of board
+	 * @param width int side length of board (number of columns)
+	 * @param goals int[] scratch array of at least max(rows, width)
+	 * @param lengths int[] scratch array of at least max(rows, width)
+	 * @return int number of pieces that have to leave their line
+	 */
+	private static int conflicts(int[] tiles, int rows, int width, int[] goals, int[] lengths) {
+		int result = 0;
+
+		for (int line = 0; line < rows; line++) {
+			int count = 0;
+
+			for (int k = 0; k < width; k++) // pieces of row line that belong in it
+				if (inLine(tiles[line * width + k], true, line, width))
+					goals[count++] = (tiles[line * width + k] - 1) % width;
+			result += count - increasing(goals, count, lengths);
+		}
+
+		for (int line = 0; line < width; line++) {
+			int count = 0;
+
+			for (int k = 0; k < rows; k++) // pieces of column line that belong in it
+				if (inLine(tiles[k * width + line], false, line, width))
+					goals[count++] = (tiles[k * width + line] - 1) / width;
+			result += count - increasing(goals, count, lengths);
+		}
+
+		return result;
+	}
+
+	/**
+	 * helper function counts the pieces that have to leave the row (or
+	 * column) through position p, reading the pieces at a and b as if they
+	 * were swapped (pass -1 for both to read the board as it is)
+	 *
+	 * @param board PackedBoard board being read
+	 * @param row boolean whether the line is a row or a column
+	 * @param p int position in the line
+	 * @param rows int number of rows of board
+	 * @param width int side length of board (number of columns)
+	 * @param a int first swapped position
+	 * @param b int second swapped position
+	 * @param goals int[] scratch array of at least the length of the line
+	 * @param lengths int[] scratch array of at least the length of the line
+	 * @return int number of pieces that have to leave the line
+	 */
+	private static int line(PackedBoard board, boolean row, int p, int rows, int width, int a, int b,
+							int[] goals, int[] lengths) {
+		int length = row ? width : rows; // number of positions in the line
+		int line = row ? p / width : p % width, count = 0;
+
+		for (int k = 0; k < length; k++) {
+			int q = row ? line * width + k : k * width + line;
+			int t = board.tile(q == a ? b : q == b ? a : q);
+
+			if (inLine(t, row, line, width))
+				goals[count++] = row ? (t - 1) % width : (t - 1) / width;
+		}
+
+		return count - increasing(goals, count, lengths);
+	}
+
+	/**
+	 * helper function checks whether or not piece t belongs in the given
+	 * row (or column)
+	 */
+	private static boolean inLine(int t, boolean row, int line, int width) {
+		if (t == 0)
+			return false;
+
+		return row ? (t - 1) / width == line : (t - 1) % width == line;
+	}
+
+	/**
+	 * helper function finds the length of the longest increasing
+	 * subsequence of the first count values of goals
+	 *
+	 * @param goals int[] values being read
+	 * @param count int number of values read
+	 * @param length int[] scratch array of at least count values
+	 * @return int length of the longest increasing subsequence
+	 */
+	private static int increasing(int[] goals, int count, int[] length) {
+		int result = 0;
+
+		for (int i = 0; i < count; i++) {
+			length[i] = 1;
+
+			for (int j = 0; j < i; j++)
+				if (goals[j] < goals[i] && length[j] + 1 > length[i])
+					length[i] = length[j] + 1;
+
+			if (length[i] > result)
+				result = length[i];
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * ManhattanHeuristic.java estimates the moves left as the total manhattan
+ * distance of the pieces, which both board classes already keep up to date.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public class ManhattanHeuristic implements Heuristic {
+
+	/**
+	 * returns the total manhattan distance of the board pieces
+	 *
+	 * @param board Board board being estimated
+	 * @return int total manhattan distance of board
+	 */
+	public int estimate(Board board) {
+		return board.manhattan();
+	}
+
+	/**
+	 * returns the total manhattan distance of the board pieces
+	 *
+	 * @param board PackedBoard board being estimated
+	 * @return int total manhattan distance of board
+	 */
+	public int estimate(PackedBoard board) {
+		return board.manhattan();
+	}
+
+	/**
+	 * returns the total manhattan distance of the board pieces, which the
+	 * board has already updated for the move
+	 *
+	 * @param board PackedBoard board after the move
+	 * @param estimate int estimate of the board before the move
+	 * @param from int position of the piece before the move
+	 * @param to int position of the piece after the move
+	 * @return int total manhattan distance of board
+	 */
+	public int update(PackedBoard board, int estimate, int from, int to) {
+		return board.manhattan();
+	}
+}
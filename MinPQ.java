@@ -1,42 +1,76 @@
 /**
  * MinPQ.java is an object file that represents a queue
  * that removes the lowest key element everytime the min function
- * is called. Repeating values in the tree are valid with equal 
- * elements going to the left.
+ * is called. The queue is stored as an array backed d-ary heap
+ * (binary by default) so add and removeMin are O(log n) no matter
+ * how many equal elements are inserted. A map from each element to the
+ * queued element equal to it lets contains and decreaseKey find it in
+ * O(1), and elements that implement Indexed remember their own slot in the
+ * heap, so moving an element up or down the heap only writes an int into
+ * it instead of updating the map at every level.
  *
  * @author Jeremy Fang
  *
- * @version 1.0
+ * @version 1.1
  *
  * @date 8/20/2018
  */
 
-@SuppressWarnings("unchecked")
+import java.util.HashMap;
 
-public class MinPQ<E extends Comparable<E>> {
+public class MinPQ<E extends Comparable<E>> implements Frontier<E> {
 
-	private Node<E> root;
+	private static final int DEFAULT_ARITY = 2; // binary heap unless told otherwise
+	private static final int DEFAULT_CAPACITY = 16; // starting length of the heap array
+
+	private E[] heap; // heap ordered array, the minimum is always at heap[0]
 	private int size;
+	private int arity; // number of children each node in the heap has
+	private HashMap<E, E> queued; // queued element equal to each element in the queue
 
 	/**
-	 * inner class represents node in the tree
+	 * interface for elements that remember their slot in the heap, which
+	 * decreaseKey needs to find them without searching the heap
 	 */
-	private static class Node<E> {
-		private E val;
-		private Node<E> left, right;
-
-		/** creates new instance of Node **/
-		private Node(E val) {
-			this.val = val;
-			left = right = null;
-		}
+	public interface Indexed {
+
+		/**
+		 * returns the slot in the heap last given to setSlot
+		 *
+		 * @return int slot of the element
+		 */
+		int getSlot();
+
+		/**
+		 * records the slot in the heap the element was moved to
+		 *
+		 * @param slot int slot of the element
+		 */
+		void setSlot(int slot);
 	}
 
 	/**
-	 * creates new instance of MinPQ
+	 * creates new instance of MinPQ backed by a binary heap
 	 */
 	public MinPQ() {
-		root = null;
+		this(DEFAULT_ARITY);
+	}
+
+	/**
+	 * creates new instance of MinPQ backed by a heap where every
+	 * node has arity children. Wider heaps are shallower, so they do
+	 * fewer swaps on add at the cost of more compares on removeMin.
+	 *
+	 * @param arity int number of children per node (at least 2)
+	 */
+	@SuppressWarnings("unchecked")
+	public MinPQ(int arity) {
+		if (arity < 2)
+			throw new IllegalArgumentException("Error: arity must be at least 2");
+
+		this.arity = arity;
+		heap = (E[]) new Comparable<?>[DEFAULT_CAPACITY];
+		queued = new HashMap<E, E>();
 		size = 0;
 	}
 
@@ -58,109 +92,198 @@ public class MinPQ<E extends Comparable<E>> {
 		return size == 0;
 	}
 
+	/**
+	 * returns whether or not an element equal to val is in the queue
+	 *
+	 * @param val E value being looked for
+	 * @return boolean whether or not val is in the queue
+	 */
+	public boolean contains(E val) {
+		return queued.containsKey(val);
+	}
+
 	/**
 	 * inserts the value (if the argument is valid) into the correct positon
-	 * in the tree.
+	 * in the heap. Values with equal keys, and values equal to one already
+	 * in the queue, are allowed; contains and decreaseKey only see the first
+	 * of several equal values that are queued at once.
+	 *
 	 * @param val E the value being inserted into the queue
 	 */
 	public void add(E val) {
 		if (val == null)
 			throw new IllegalArgumentException("Error: Null has been passed as arguement");
-		if (root == null)
-			root = new Node(val);
-		else
-			add(root, val);
-		size++;
+
+		if (size == heap.length)
+			resize(heap.length * 2);
+
+		heap[size] = val;
+		queued.putIfAbsent(val, val);
+		swim(size++);
 	}
 
 	/**
-	 * helper function inserts the value into the correct position
+	 * replaces the element in the queue that is equal to val with val
+	 * if val has a lower key and moves it to its new position. Elements
+	 * that do not implement Indexed are found by searching the heap.
 	 *
-	 * @param current Node<E> current node being looked at
-	 * @param val E value being inserted into the tree
+	 * @param val E replacement for the queued element equal to it
+	 * @return boolean whether or not the queued element was replaced
 	 */
-	private void add(Node<E> current, E val) {
-		int cmp = val.compareTo(current.val);
-
-		if (cmp == 1)
-			if (current.right == null)
-				current.right = new Node(val);
-			else
-				add(current.right, val);
-		else
-			if (current.left == null)
-				current.left = new Node(val);
-			else
-				add(current.left, val);
+	public boolean decreaseKey(E val) {
+		if (val == null)
+			throw new IllegalArgumentException("Error: Null has been passed as arguement");
+
+		E old = queued.get(val);
+
+		if (old == null || val.compareTo(old) >= 0)
+			return false;
+
+		int i = slot(old);
+
+		queued.remove(old); // the old key object has to go, put would keep it
+		queued.put(val, val);
+		heap[i] = val;
+		swim(i);
+
+		return true;
 	}
 
 	/**
 	 * returns the minimum element in the queue and removes
-	 * it unless the queue is empty. If it is empty then null is 
+	 * it unless the queue is empty. If it is empty then null is
 	 * returned instead
-	 * 
+	 *
 	 * @return E minimum value in the queue
 	 */
 	public E removeMin() {
-		if (root == null)
+		if (size == 0)
 			return null;
-		
+
+		E val = heap[0];
+
 		size--;
-		if (root.left == null) {
-			E val = root.val;
-			if (root.right == null)
-				root = null;
-			else
-				root = root.right;
-			return val;
-			}
-		else
-			return removeMin(root);
-	}	
+		heap[0] = heap[size];
+		heap[size] = null; // avoid loitering
 
-	/**
-	 * helper function that returns the minimum value in the 
-	 * queue and removes it from the queue.
-	 *
-	 * @param current Node<E> current node being looked at
-	 * @return E minimum value in the queue
-	 */
-	private E removeMin(Node<E> current) {
-		if (current.left.left == null) {
-			E val = current.left.val;
-			if (current.left.right == null)
-				current.left = null;
-			else
-				current.left = current.left.right;
-			return val;
-		}
-		else
-			return removeMin(current.left);
+		if (queued.get(val) == val)
+			queued.remove(val);
+
+		if (size > 0)
+			sink(0);
+
+		return val;
 	}
 
 	/**
 	 * returns the minimum element in the queue. If the
 	 * queue is empty then null is returned.
-	 * 
+	 *
 	 * @return E minimum element of the queue
 	 */
 	public E min() {
-		if (root == null)
+		if (size == 0)
 			return null;
 		else
-			return min(root);
+			return heap[0];
 	}
 
 	/**
-	 * helper function that returns the minimum element in the queue
+	 * helper function moves the element at slot i up the heap
+	 * until its parent is no larger than it
 	 *
-	 * @param current Node<E> current node being looked at
-	 * @return E minimum value in the queue
+	 * @param i int slot of the element being moved
 	 */
-	private E min(Node<E> current) {
-		if (current.left == null)
-			return current.val;
-		else
-			return min(current.left);
+	private void swim(int i) {
+		E val = heap[i];
+
+		while (i > 0) {
+			int parent = (i - 1) / arity;
+
+			if (val.compareTo(heap[parent]) >= 0)
+				break;
+
+			heap[i] = heap[parent];
+			place(i);
+			i = parent;
+		}
+
+		heap[i] = val;
+		place(i);
+	}
+
+	/**
+	 * helper function moves the element at slot i down the heap
+	 * until none of its children are smaller than it
+	 *
+	 * @param i int slot of the element being moved
+	 */
+	private void sink(int i) {
+		E val = heap[i];
+
+		while (true) {
+			int first = i * arity + 1, smallest = first;
+
+			if (first >= size)
+				break;
+
+			for (int c = first + 1; c < first + arity && c < size; c++)
+				if (heap[c].compareTo(heap[smallest]) < 0)
+					smallest = c;
+
+			if (heap[smallest].compareTo(val) >= 0)
+				break;
+
+			heap[i] = heap[smallest];
+			place(i);
+			i = smallest;
+		}
+
+		heap[i] = val;
+		place(i);
+	}
+
+	/**
+	 * helper function tells the element at slot i where it is, if it keeps
+	 * track of its slot
+	 *
+	 * @param i int slot of the element
+	 */
+	private void place(int i) {
+		if (heap[i] instanceof Indexed)
+			((Indexed) heap[i]).setSlot(i);
+	}
+
+	/**
+	 * helper function returns the slot of a queued element, searching the
+	 * heap for elements that do not keep track of their slot
+	 *
+	 * @param val E element in the queue
+	 * @return int slot of the element
+	 */
+	private int slot(E val) {
+		if (val instanceof Indexed)
+			return ((Indexed) val).getSlot();
+
+		for (int i = 0; i < size; i++)
+			if (heap[i] == val)
+				return i;
+
+		throw new IllegalStateException("Error: queued element is not in the heap");
+	}
+
+	/**
+	 * helper function moves the heap into a new array of the given length
+	 *
+	 * @param capacity int length of the new heap array
+	 */
+	@SuppressWarnings("unchecked")
+	private void resize(int capacity) {
+		E[] temp = (E[]) new Comparable<?>[capacity];
+
+		for (int i = 0; i < size; i++)
+			temp[i] = heap[i];
+
+		heap = temp;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+/**
+ * PDBHeuristic.java estimates the moves left by adding up pattern
+ * databases over disjoint sets of pieces, plus the manhattan distance of
+ * any piece that is in none of the patterns. Every part only counts moves
+ * of its own pieces, so the sum never overestimates and is much closer
+ * to the real number of moves than manhattan distance alone.
+ *
+ * A mirrored heuristic (see mirrored) also looks the mirror of the board
+ * up in the same databases (see Symmetry). The mirror is exactly as far
+ * from the goal as the board, so the larger of the two sums is still a
+ * lower bound and is often closer than either one.
+ *
+ * Estimates are worked out in per-thread scratch arrays, so a heuristic
+ * shared by many solvers allocates nothing per board. After a move only the
+ * database holding the moved piece can change (see update), so the other
+ * databases are not looked up again.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class PDBHeuristic implements Heuristic {
+
+	private int width; // side length of board
+	private PatternDatabase[] databases;
+	private int[] owner; // owner[t] is the index of the database holding piece t (-1 if none)
+	private int[][] distance; // manhattan distance of piece t at position p
+	private boolean mirror; // whether or not the mirror of the board is looked up as well
+	private ThreadLocal<int[][]> scratch; // where and mirrored arrays used on each thread
+
+	/**
+	 * creates new instance of PDBHeuristic over the given databases
+	 *
+	 * @param databases PatternDatabase... databases over disjoint patterns
+	 */
+	public PDBHeuristic(PatternDatabase... databases) {
+		if (databases.length == 0)
+			throw new IllegalArgumentException("Error: no pattern databases were given");
+
+		width = databases[0].getLength();
+		this.databases = databases.clone();
+		owner = new int[width * width];
+		distance = PackedBoard.distanceTable(width);
+		scratch = ThreadLocal.withInitial(() -> new int[][] { new int[width * width], new int[width * width] });
+
+		for (int t = 0; t < owner.length; t++)
+			owner[t] = -1;
+
+		for (int i = 0; i < databases.length; i++) {
+			if (databases[i].getLength() != width)
+				throw new IllegalArgumentException("Error: databases are for different board sizes");
+
+			for (int t : databases[i].getPattern()) {
+				if (owner[t] != -1)
+					throw new IllegalArgumentException("Error: piece " + t + " is in two patterns");
+				owner[t] = i;
+			}
+		}
+	}
+
+	/**
+	 * returns a heuristic over the same databases that takes the larger of
+	 * the estimates for the board and for its mirror
+	 *
+	 * @return PDBHeuristic mirrored heuristic
+	 */
+	public PDBHeuristic mirrored() {
+		PDBHeuristic result = new PDBHeuristic(databases);
+
+		result.mirror = true;
+		return result;
+	}
+
+	/**
+	 * maps the database files into memory and adds them together
+	 *
+	 * @param files Path... database files written by PatternDatabase
+	 * @return PDBHeuristic heuristic over the databases
+	 */
+	public static PDBHeuristic load(Path... files) throws IOException {
+		PatternDatabase[] databases = new PatternDatabase[files.length];
+
+		for (int i = 0; i < files.length; i++)
+			databases[i] = PatternDatabase.load(files[i]);
+
+		return new PDBHeuristic(databases);
+	}
+
+	/**
+	 * returns the sum of the pattern databases for the board
+	 *
+	 * @param board Board board being estimated
+	 * @return int estimated number of moves left
+	 */
+	public int estimate(Board board) {
+		if (board.getLength() != width || board.getRows() != width)
+			throw new IllegalArgumentException("Error: board does not match the database size");
+
+		int[] where = scratch.get()[0];
+
+		for (int i = 0; i < width; i++)
+			for (int j = 0; j < width; j++)
+				where[board.getIndex(i, j)] = i * width + j;
+
+		return estimate(where);
+	}
+
+	/**
+	 * returns the sum of the pattern databases for the board
+	 *
+	 * @param board PackedBoard board being estimated
+	 * @return int estimated number of moves left
+	 */
+	public int estimate(PackedBoard board) {
+		if (board.getLength() != width || board.getRows() != width)
+			throw new IllegalArgumentException("Error: board does not match the database size");
+
+		return estimate(where(board));
+	}
+
+	/**
+	 * returns the estimate after the piece at from slid into the blank at
+	 * to. Only the database holding that piece can change, so it is looked
+	 * up before and after the move and the other databases are left alone;
+	 * a piece in no pattern only changes its manhattan distance. A mirrored
+	 * estimate is a larger of two sums, so it is worked out from scratch.
+	 *
+	 * @param board PackedBoard board after the move
+	 * @param estimate int estimate of the board before the move
+	 * @param from int position of the piece before the move (now the blank)
+	 * @param to int position of the piece after the move
+	 * @return int estimated number of moves left after the move
+	 */
+	public int update(PackedBoard board, int estimate, int from, int to) {
+		if (mirror)
+			return estimate(board);
+
+		int t = board.tile(to);
+
+		if (owner[t] == -1)
+			return estimate + distance[t][to] - distance[t][from];
+
+		PatternDatabase db = databases[owner[t]];
+		int[] where = where(board);
+		int after = db.distance(where);
+
+		where[t] = from;
+		return estimate - db.distance(where) + after;
+	}
+
+	/**
+	 * helper function writes where every piece of the board is into the
+	 * scratch array of the current thread
+	 *
+	 * @param board PackedBoard board being read
+	 * @return int[] where[t] is the position of piece t
+	 */
+	private int[] where(PackedBoard board) {
+		int[] where = scratch.get()[0];
+
+		for (int p = 0; p < where.length; p++)
+			where[board.tile(p)] = p;
+
+		return where;
+	}
+
+	/**
+	 * helper function returns the sum for the board, or the larger of the
+	 * sums for the board and its mirror when mirrored
+	 *
+	 * @param where int[] where[t] is the position of piece t
+	 * @return int estimated number of moves left
+	 */
+	private int estimate(int[] where) {
+		if (!mirror)
+			return sum(where);
+
+		int[] mirrored = scratch.get()[1];
+
+		Symmetry.transpose(where, width, mirrored);
+		return Math.max(sum(where), sum(mirrored));
+	}
+
+	/**
+	 * helper function adds up the databases and the manhattan distance of
+	 * the pieces outside of every pattern
+	 *
+	 * @param where int[] where[t] is the position of piece t
+	 * @return int sum of the databases
+	 */
+	private int sum(int[] where) {
+		int result = 0;
+
+		for (PatternDatabase db : databases)
+			result += db.distance(where);
+
+		for (int t = 1; t < where.length; t++)
+			if (owner[t] == -1)
+				result += distance[t][where[t]];
+
+		return result;
+	}
+}
@@ -0,0 +1,283 @@
+/**
+ * PackedBoard.java is a compact, mutable version of Board meant for the
+ * inner loops of the solvers. Boards with at most 16 tiles are held in a
+ * single long with 4 bits per tile (the same layout as Board.pack), larger
+ * boards in a byte array. A move changes the board in place in O(1) and
+ * updates the manhattan distance by the change of the one tile that moved,
+ * and neighbors are written into a buffer given by the caller so walking
+ * the search tree allocates nothing. Rectangular boards of up to 16 tiles
+ * (e.g. 2x4 or 3x5) take the same single long path as square ones, with
+ * a distance table made for their shape.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public class PackedBoard {
+
+	private int width; // side length of board (number of columns)
+	private int rows; // number of rows of board
+	private int size; // number of tiles including the blank
+	private long packed; // tiles of the board when size <= 16
+	private byte[] tiles; // tiles of the board when size > 16 (null otherwise)
+	private int blank; // position (row * width + col) of the blank
+	private int manhattanDistance; // total manhattan distance of board
+	private int[][] distance; // distance[t][p] is the manhattan distance of tile t at position p
+
+	/**
+	 * creates new instance of PackedBoard holding the same tiles as board
+	 *
+	 * @param board Board board being packed
+	 */
+	public PackedBoard(Board board) {
+		width = board.getLength();
+		rows = board.getRows();
+		size = rows * width;
+		distance = distanceTable(rows, width);
+
+		if (size > 16)
+			tiles = new byte[size];
+
+		load(board);
+	}
+
+	/**
+	 * replaces the tiles of this board with those of a board of the same
+	 * shape, so one PackedBoard can be reused for every board a search expands
+	 *
+	 * @param board Board board being copied
+	 */
+	public void load(Board board) {
+		manhattanDistance = 0;
+
+		for (int p = 0; p < size; p++) {
+			int t = board.getIndex(p / width, p % width);
+
+			set(p, t);
+			manhattanDistance += distance[t][p];
+			if (t == 0)
+				blank = p;
+		}
+	}
+
+	/**
+	 * replaces the tiles of this board with those of a packed board of the
+	 * same size (see Board.pack) and recomputes the blank and manhattan distance
+	 * note : only valid for boards with at most 16 tiles
+	 *
+	 * @param packed long packed board
+	 */
+	public void load(long packed) {
+		this.packed = packed;
+		manhattanDistance = 0;
+
+		for (int p = 0; p < size; p++) {
+			int t = tile(p);
+
+			manhattanDistance += distance[t][p];
+			if (t == 0)
+				blank = p;
+		}
+	}
+
+	/**
+	 * builds the table of manhattan distances of every tile at every position
+	 * for a board of the given side length. The blank is always 0 away.
+	 *
+	 * @param width int side length of board
+	 * @return int[][] table indexed by tile then position
+	 */
+	static int[][] distanceTable(int width) {
+		return distanceTable(width, width);
+	}
+
+	/**
+	 * builds the table of manhattan distances of every tile at every position
+	 * for a board with the given number of rows and columns
+	 *
+	 * @param rows int number of rows of board
+	 * @param width int side length of board (number of columns)
+	 * @return int[][] table indexed by tile then position
+	 */
+	static int[][] distanceTable(int rows, int width) {
+		int size = rows * width;
+		int[][] result = new int[size][size];
+
+		for (int t = 1; t < size; t++)
+			for (int p = 0; p < size; p++)
+				result[t][p] = Math.abs((t - 1) / width - p / width)
+							 + Math.abs((t - 1) % width - p % width);
+
+		return result;
+	}
+
+	/**
+	 * returns the side length of the board (number of columns)
+	 *
+	 * @return int side length of board
+	 */
+	public int getLength() {
+		return width;
+	}
+
+	/**
+	 * returns the number of rows of the board
+	 *
+	 * @return int number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * returns the tile at position p (row * width + col)
+	 *
+	 * @param p int position on the board
+	 * @return int tile at that position
+	 */
+	public int tile(int p) {
+		if (tiles != null)
+			return tiles[p];
+
+		return (int) (packed >>> (p << 2)) & 0xF;
+	}
+
+	/**
+	 * returns the position (row * width + col) of the blank
+	 *
+	 * @return int position of the blank
+	 */
+	public int getBlank() {
+		return blank;
+	}
+
+	/**
+	 * returns the total manhattan distance of the board pieces
+	 *
+	 * @return int total manhattan distance of board
+	 */
+	public int manhattan() {
+		return manhattanDistance;
+	}
+
+	/**
+	 * checks if the board is in the completed state. Only the goal board
+	 * has every tile 0 away from where it belongs.
+	 *
+	 * @return boolean whether or not this board is the goal board
+	 */
+	public boolean isGoal() {
+		return manhattanDistance == 0;
+	}
+
+	/**
+	 * returns the board packed into a long (see Board.pack)
+	 * note : only valid for boards with at most 16 tiles
+	 *
+	 * @return long packed board
+	 */
+	public long pack() {
+		return packed;
+	}
+
+	/**
+	 * returns the change in manhattan distance that sliding the tile
+	 * at p into the blank would cause, without making the move
+	 *
+	 * @param p int position of the tile next to the blank
+	 * @return int change in manhattan distance
+	 */
+	public int delta(int p) {
+		int t = tile(p);
+
+		return distance[t][blank] - distance[t][p];
+	}
+
+	/**
+	 * slides the tile at p into the blank so that p becomes the blank.
+	 * note : p is assumed to be next to the blank
+	 *
+	 * @param p int position of the tile being moved
+	 */
+	public void move(int p) {
+		int t = tile(p);
+
+		manhattanDistance += distance[t][blank] - distance[t][p];
+
+		if (tiles != null) {
+			tiles[blank] = (byte) t;
+			tiles[p] = 0;
+		}
+		else
+			packed = move(packed, blank, p);
+
+		blank = p;
+	}
+
+	/**
+	 * slides the tile at p into the blank of a packed board.
+	 * note : p is assumed to be next to the blank
+	 *
+	 * @param packed long packed board
+	 * @param blank int position of the blank
+	 * @param p int position of the tile being moved
+	 * @return long packed board after the move
+	 */
+	public static long move(long packed, int blank, int p) {
+		long t = (packed >>> (p << 2)) & 0xF;
+
+		return (packed & ~(0xFL << (p << 2))) | (t << (blank << 2));
+	}
+
+	/**
+	 * writes the positions of the tiles that can slide into the blank into
+	 * buffer (which needs room for 4) and returns how many there are
+	 *
+	 * @param buffer int[] array the positions are written to
+	 * @return int number of positions written
+	 */
+	public int neighbors(int[] buffer) {
+		int count = 0, row = blank / width, col = blank % width;
+
+		if (row != 0)
+			buffer[count++] = blank - width;
+		if (row != rows - 1)
+			buffer[count++] = blank + width;
+		if (col != 0)
+			buffer[count++] = blank - 1;
+		if (col != width - 1)
+			buffer[count++] = blank + 1;
+
+		return count;
+	}
+
+	/**
+	 * returns a Board with the same tiles as this board
+	 *
+	 * @return Board copy of this board
+	 */
+	public Board toBoard() {
+		int[][] result = new int[rows][width];
+
+		for (int p = 0; p < size; p++)
+			result[p / width][p % width] = tile(p);
+
+		return new Board(result);
+	}
+
+	/**
+	 * helper function writes tile t at position p
+	 *
+	 * @param p int position on the board
+	 * @param t int tile being written
+	 */
+	private void set(int p, int t) {
+		if (tiles != null)
+			tiles[p] = (byte) t;
+		else
+			packed = (packed & ~(0xFL << (p << 2))) | ((long) t << (p << 2));
+	}
+}
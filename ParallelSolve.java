@@ -0,0 +1,383 @@
+/**
+ * ParallelSolve.java solves a single board with hash distributed A*
+ * (HDA*) on several threads. Every board is owned by one worker, picked by
+ * hashing the packed board, and only its owner keeps it in an open queue
+ * and a closed table, so the workers never share search structures or
+ * locks. A worker that generates a board owned by another worker sends it
+ * through the owner's lock free inbox (a ConcurrentLinkedQueue).
+ *
+ * A solution is not optimal just because it was found first, so every
+ * goal found lowers a shared best length and the search only ends once no
+ * worker has a board left with depth + estimate below it and no board is
+ * still waiting in an inbox. Both are tracked by one counter of busy
+ * workers plus boards in flight: a board is counted from the moment it is
+ * sent until its owner, already counted as busy, has queued it, so the
+ * counter only reaches 0 once nothing is left anywhere. Each worker stores the position the blank
+ * came from with every board it owns, so the path is rebuilt by undoing
+ * moves from the goal once the workers have stopped.
+ * note : boards are packed into longs, so only boards of at most 16 pieces (e.g. 4x4, 3x5 or 2x8) are supported
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParallelSolve implements Solver {
+
+	private static final int NONE = 0xFF; // blank position stored for the input board
+
+	private boolean solvable;
+	private Solution sequence; // moves that reach the solution(null if it does not exist)
+
+	private Worker[] workers;
+	private Heuristic heuristic; // estimate of the moves left from a board
+	private long goal; // packed goal board
+	private AtomicInteger best; // length of the shortest solution found so far
+	private AtomicLong busy; // workers that are not idle plus boards sent to an inbox but not handled yet
+	private volatile boolean done; // set once the search is over
+	private volatile Throwable failure; // exception thrown by a worker (null if none)
+
+	/**
+	 * inner class represents a board sent to or queued by a worker
+	 */
+	private static class Node implements Comparable<Node> {
+		private long board; // packed board
+		private int depth; // number of moves made already
+		private int estimate; // estimated number of moves left
+		private int from; // position of the blank before the last move (NONE for the input)
+
+		/**
+		 * initializes the node with the input variables of the same name
+		 */
+		private Node(long board, int depth, int estimate, int from) {
+			this.board = board;
+			this.depth = depth;
+			this.estimate = estimate;
+			this.from = from;
+		}
+
+		/**
+		 * orders nodes by depth + estimate, deeper nodes first on ties
+		 *
+		 * @param other Node node being compared to
+		 * @return int compares this node and the input node
+		 */
+		public int compareTo(Node other) {
+			int cmp = Integer.compare(depth + estimate, other.depth + other.estimate);
+
+			return cmp != 0 ? cmp : Integer.compare(other.depth, depth);
+		}
+	}
+
+	/**
+	 * solves the board with one worker per core and manhattan distance
+	 *
+	 * @param board Board board being solved
+	 */
+	public ParallelSolve(Board board) {
+		this(board, Runtime.getRuntime().availableProcessors(), new ManhattanHeuristic());
+	}
+
+	/**
+	 * solves the board with the given number of workers and heuristic
+	 *
+	 * @param board Board board being solved (at most 16 pieces)
+	 * @param threads int number of workers
+	 * @param heuristic Heuristic estimate of the moves left from a board
+	 */
+	public ParallelSolve(Board board, int threads, Heuristic heuristic) {
+		if (!board.isPackable())
+			throw new IllegalArgumentException("Error: parallel search needs boards of at most 16 pieces");
+		if (threads < 1)
+			throw new IllegalArgumentException("Error: at least one worker is needed");
+
+		solvable = board.isSolvable();
+
+		if (solvable == false) { // if the board is not solvable, sequence is null
+			sequence = null;
+			return;
+		}
+
+		this.heuristic = heuristic;
+		goal = goal(board.getRows() * board.getLength());
+		best = new AtomicInteger(Integer.MAX_VALUE);
+		busy = new AtomicLong(threads);
+		workers = new Worker[threads];
+
+		for (int i = 0; i < threads; i++)
+			workers[i] = new Worker(i, board);
+
+		long start = board.pack();
+		workers[owner(start)].receive(new Node(start, 0, heuristic.estimate(board), NONE));
+
+		Thread[] running = new Thread[threads];
+
+		for (int i = 0; i < threads; i++) {
+			running[i] = new Thread(workers[i], "parallel-solve-" + i);
+			running[i].start();
+		}
+
+		try {
+			for (Thread thread : running)
+				thread.join();
+		}
+		catch (InterruptedException e) {
+			done = true;
+			Thread.currentThread().interrupt();
+			Solver.checkInterrupted();
+		}
+
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+
+		sequence = path(board);
+	}
+
+	/**
+	 * helper function picks the worker that owns a packed board
+	 *
+	 * @param board long packed board
+	 * @return int index of the owning worker
+	 */
+	private int owner(long board) {
+		return (BoardTable.mix(board) & Integer.MAX_VALUE) % workers.length;
+	}
+
+	/**
+	 * helper function rebuilds the solution by undoing the stored moves
+	 * from the goal back to the input board
+	 *
+	 * @param board Board input board
+	 * @return Solution moves from the input board to the goal
+	 */
+	private Solution path(Board board) {
+		PackedBoard scratch = new PackedBoard(board);
+		int width = board.getLength(), count = 0;
+		byte[] reversed = new byte[64]; // moves from the goal back to the input board
+		long current = goal;
+
+		scratch.load(current);
+
+		while (true) {
+			int from = workers[owner(current)].closed.get(current) & NONE;
+
+			if (from == NONE)
+				break;
+
+			if (count == reversed.length) {
+				byte[] temp = new byte[count * 2];
+				System.arraycopy(reversed, 0, temp, 0, count);
+				reversed = temp;
+			}
+
+			reversed[count++] = (byte) Solution.direction(from, scratch.getBlank(), width);
+			current = PackedBoard.move(current, scratch.getBlank(), from);
+			scratch.load(current);
+		}
+
+		byte[] moves = new byte[count];
+
+		for (int i = 0; i < count; i++)
+			moves[i] = reversed[count - 1 - i];
+
+		return new Solution(board, moves);
+	}
+
+	/**
+	 * helper function packs the goal board with the given number of tiles
+	 *
+	 * @param size int number of tiles including the blank
+	 * @return long packed goal board
+	 */
+	private static long goal(int size) {
+		long result = 0;
+
+		for (int p = 0; p < size - 1; p++)
+			result |= (long) (p + 1) << (p << 2);
+
+		return result;
+	}
+
+	/**
+	 * inner class runs the search for the boards owned by one worker
+	 */
+	private class Worker implements Runnable {
+		private int id;
+		private ConcurrentLinkedQueue<Node> inbox = new ConcurrentLinkedQueue<Node>();
+		private PriorityQueue<Node> open = new PriorityQueue<Node>();
+		private BoardTable closed = new BoardTable(); // depth << 8 | from of every owned board
+		private PackedBoard scratch; // board being expanded
+		private int[] moves = new int[4];
+
+		/** creates new instance of Worker **/
+		private Worker(int id, Board board) {
+			this.id = id;
+			scratch = new PackedBoard(board);
+		}
+
+		/**
+		 * expands the best owned board until the search is over, handling
+		 * the inbox in between and going idle when there is nothing useful
+		 * left to expand
+		 */
+		public void run() {
+			try {
+				while (!done) {
+					drain();
+
+					Node min = open.peek();
+
+					if (min != null && min.depth + min.estimate < best.get())
+						expand(open.poll());
+					else
+						idle();
+				}
+			}
+			catch (Throwable e) { // stop every worker, or they would wait for this one forever
+				failure = e;
+				done = true;
+			}
+		}
+
+		/**
+		 * helper function waits until a board arrives in the inbox or every
+		 * worker is idle with no boards in flight, which ends the search.
+		 * A board in the inbox is still counted in busy, so busy can only be
+		 * 0 once no worker can send or receive anything again.
+		 */
+		private void idle() {
+			busy.decrementAndGet();
+
+			while (!done) {
+				if (!inbox.isEmpty()) {
+					busy.incrementAndGet();
+					return;
+				}
+				if (busy.get() == 0) {
+					done = true;
+					return;
+				}
+
+				Thread.yield();
+			}
+		}
+
+		/**
+		 * helper function handles every board waiting in the inbox
+		 */
+		private void drain() {
+			Node node;
+
+			while ((node = inbox.poll()) != null) {
+				receive(node);
+				busy.decrementAndGet(); // counted by this busy worker from now on
+			}
+		}
+
+		/**
+		 * helper function queues an owned board unless it has already been
+		 * reached at the same depth or less
+		 *
+		 * @param node Node board being received
+		 */
+		private void receive(Node node) {
+			int old = closed.get(node.board);
+
+			if (old != -1 && (old >>> 8) <= node.depth)
+				return;
+
+			closed.put(node.board, node.depth << 8 | node.from);
+			open.add(node);
+		}
+
+		/**
+		 * helper function expands a board, keeping the new boards it owns
+		 * and sending the others to their owners
+		 *
+		 * @param node Node board being expanded
+		 */
+		private void expand(Node node) {
+			if ((closed.get(node.board) >>> 8) < node.depth) // reached again with a shorter path
+				return;
+
+			if (node.board == goal) {
+				best.accumulateAndGet(node.depth, Math::min);
+				return;
+			}
+
+			scratch.load(node.board);
+
+			int blank = scratch.getBlank(), count = scratch.neighbors(moves);
+
+			for (int k = 0; k < count; k++) {
+				int p = moves[k];
+
+				if (p == node.from)
+					continue;
+
+				scratch.move(p);
+
+				Node child = new Node(scratch.pack(), node.depth + 1,
+						heuristic.update(scratch, node.estimate, p, blank), blank);
+				int to = owner(child.board);
+
+				scratch.move(blank);
+
+				if (to == id)
+					receive(child);
+				else {
+					busy.incrementAndGet();
+					workers[to].inbox.add(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * returns whether or not the board was solvable
+	 *
+	 * @return boolean whether or not the board was solvable
+	 */
+	public boolean isSolvable() {
+		return solvable;
+	}
+
+	/**
+	 * returns an Iterable<Board> that replays the sequence of moves that
+	 * need to be made to solve the puzzle, one board at a time
+	 *
+	 * @return Iterable<Board> boards the moves needed to solve the
+	 * 		   puzzle pass through(null if unsolvable)
+	 */
+	public Iterable<Board> getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * returns the moves needed to solve the puzzle
+	 *
+	 * @return Solution moves of the solution(null if unsolvable)
+	 */
+	public Solution getSolution() {
+		return sequence;
+	}
+
+	/**
+	 * returns the number of moves needed to go from the board to
+	 * the solution board
+	 *
+	 * @return int number of moves needed to find solution
+	 */
+	public int getSolutionLength() {
+		return sequence.length() - 1;
+	}
+}
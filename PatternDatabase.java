@@ -0,0 +1,331 @@
+/**
+ * PatternDatabase.java holds the exact number of moves needed to bring a
+ * subset of the pieces (the pattern) to where they belong, for every way
+ * those pieces can be placed on the board. Only moves of pattern pieces are
+ * counted, so databases over disjoint patterns can be added together and
+ * still never overestimate (see PDBHeuristic).
+ *
+ * A database is built by a breadth first search backwards from the goal
+ * over the placements of the pattern pieces and the blank, and is saved as
+ * a small header followed by one byte per placement:
+ *
+ *	int magic ("PDB2"), int width, int k, k ints with the pattern pieces,
+ *	then P(width^2, k) bytes indexed by the rank of the piece positions
+ *	(see Permutations.rankPartial).
+ *
+ * Loading maps the file read only through NIO instead of reading it, so
+ * every process using the same file shares one copy in the page cache and
+ * startup does not depend on the size of the table.
+ * note : a mapped table has to be smaller than 2GB (e.g. 6-6-3 for 4x4)
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class PatternDatabase {
+
+	private static final int MAGIC = 0x50444232; // "PDB2"
+	private static final int BITS = 5; // bits per position in a packed search state
+	private static final long MASK = (1 << BITS) - 1;
+
+	private int width; // side length of board
+	private int[] pattern; // pieces in the pattern
+	private ByteBuffer table; // one byte per placement of the pattern pieces
+	private int offset; // index in table where the entries start
+	private ThreadLocal<int[][]> scratch; // positions, perm and inverse arrays used by distance on each thread
+
+	/**
+	 * creates new instance of PatternDatabase over an existing table
+	 */
+	private PatternDatabase(int width, int[] pattern, ByteBuffer table, int offset) {
+		this.width = width;
+		this.pattern = pattern;
+		this.table = table;
+		this.offset = offset;
+		scratch = ThreadLocal.withInitial(() -> new int[][] {
+			new int[pattern.length], new int[width * width], new int[width * width] });
+	}
+
+	/**
+	 * returns the side length of board the database is for
+	 *
+	 * @return int side length of board
+	 */
+	public int getLength() {
+		return width;
+	}
+
+	/**
+	 * returns a copy of the pieces in the pattern
+	 *
+	 * @return int[] pieces in the pattern
+	 */
+	public int[] getPattern() {
+		return pattern.clone();
+	}
+
+	/**
+	 * returns the number of moves of pattern pieces needed to bring them
+	 * to where they belong. Each thread ranks into its own scratch arrays,
+	 * so lookups allocate nothing and databases can be shared across threads.
+	 *
+	 * @param where int[] where[t] is the position (row * width + col) of piece t
+	 * @return int moves needed for the pattern pieces
+	 */
+	public int distance(int[] where) {
+		int[][] arrays = scratch.get();
+		int[] pos = arrays[0];
+
+		for (int i = 0; i < pattern.length; i++)
+			pos[i] = where[pattern[i]];
+
+		return table.get(offset + (int) Permutations.rankPartial(pos, pattern.length, width * width, arrays[1], arrays[2])) & 0xFF;
+	}
+
+	/**
+	 * builds the database for the pattern pieces on a board with the given
+	 * side length. The search runs backwards from the goal over placements
+	 * of the pattern pieces and the blank; moving the blank over a piece
+	 * outside of the pattern is free, so placements reached that way join
+	 * the current layer and the layers stay in order of pattern moves.
+	 *
+	 * @param width int side length of board
+	 * @param pattern int[] pieces in the pattern
+	 * @return PatternDatabase database for the pattern
+	 */
+	public static PatternDatabase build(int width, int[] pattern) {
+		int n = width * width, k = pattern.length;
+
+		if (n > 1 << BITS || (k + 1) * BITS > 64)
+			throw new IllegalArgumentException("Error: board or pattern is too large");
+
+		for (int i = 0; i < k; i++)
+			if (pattern[i] <= 0 || pattern[i] >= n)
+				throw new IllegalArgumentException("Error: pattern piece out of range");
+
+		byte[] result = new byte[(int) count(n, k)];
+		long[] settled = new long[(int) ((count(n, k + 1) + 63) >>> 6)];
+		LongQueue layer = new LongQueue(), next = new LongQueue();
+		int[] pos = new int[k + 1], perm = new int[n], inverse = new int[n];
+
+		for (int i = 0; i < result.length; i++)
+			result[i] = (byte) 0xFF;
+
+		for (int i = 0; i < k; i++)
+			pos[i] = pattern[i] - 1;
+		pos[k] = n - 1;
+		layer.add(encode(pos, k + 1));
+
+		for (int depth = 0; !layer.isEmpty(); depth++) {
+			while (!layer.isEmpty()) {
+				long state = layer.remove();
+				decode(state, pos, k + 1);
+
+				long id = Permutations.rankPartial(pos, k + 1, n, perm, inverse);
+
+				if ((settled[(int) (id >>> 6)] & (1L << id)) != 0)
+					continue;
+
+				settled[(int) (id >>> 6)] |= 1L << id;
+
+				int entry = (int) Permutations.rankPartial(pos, k, n, perm, inverse);
+				if (result[entry] == (byte) 0xFF)
+					result[entry] = (byte) depth;
+
+				int blank = pos[k], row = blank / width, col = blank % width;
+
+				if (row != 0)
+					step(pos, k, blank - width, layer, next, settled, perm, inverse);
+				if (row != width - 1)
+					step(pos, k, blank + width, layer, next, settled, perm, inverse);
+				if (col != 0)
+					step(pos, k, blank - 1, layer, next, settled, perm, inverse);
+				if (col != width - 1)
+					step(pos, k, blank + 1, layer, next, settled, perm, inverse);
+			}
+
+			LongQueue temp = layer;
+			layer = next;
+			next = temp;
+		}
+
+		return new PatternDatabase(width, pattern.clone(), ByteBuffer.wrap(result), 0);
+	}
+
+	/**
+	 * helper function moves the blank of the placement in pos to p and
+	 * queues the result in layer if no pattern piece moved, or in next if
+	 * one did. pos is left as it was.
+	 */
+	private static void step(int[] pos, int k, int p, LongQueue layer, LongQueue next,
+							 long[] settled, int[] perm, int[] inverse) {
+		int blank = pos[k], moved = -1;
+
+		for (int i = 0; i < k; i++)
+			if (pos[i] == p)
+				moved = i;
+
+		if (moved != -1)
+			pos[moved] = blank;
+		pos[k] = p;
+
+		long id = Permutations.rankPartial(pos, k + 1, perm.length, perm, inverse);
+
+		if ((settled[(int) (id >>> 6)] & (1L << id)) == 0)
+			(moved == -1 ? layer : next).add(encode(pos, k + 1));
+
+		if (moved != -1)
+			pos[moved] = p;
+		pos[k] = blank;
+	}
+
+	/**
+	 * saves the database to a file in the format described above
+	 *
+	 * @param file Path file being written
+	 */
+	public void write(Path file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(12 + 4 * pattern.length);
+		ByteBuffer entries = table.duplicate();
+
+		header.putInt(MAGIC).putInt(width).putInt(pattern.length);
+		for (int t : pattern)
+			header.putInt(t);
+		header.flip();
+		entries.position(offset);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (header.hasRemaining())
+				channel.write(header);
+			while (entries.hasRemaining())
+				channel.write(entries);
+		}
+	}
+
+	/**
+	 * maps a database file written by write into memory
+	 *
+	 * @param file Path file being loaded
+	 * @return PatternDatabase database stored in the file
+	 */
+	public static PatternDatabase load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (table.getInt(0) != MAGIC)
+				throw new IOException("Error: " + file + " is not a pattern database");
+
+			int width = table.getInt(4), k = table.getInt(8);
+			int[] pattern = new int[k];
+
+			for (int i = 0; i < k; i++)
+				pattern[i] = table.getInt(12 + 4 * i);
+
+			if (channel.size() != 12 + 4 * k + count(width * width, k))
+				throw new IOException("Error: " + file + " has the wrong size");
+
+			return new PatternDatabase(width, pattern, table, 12 + 4 * k);
+		}
+	}
+
+	/**
+	 * returns the number of ways to place k distinct items in n cells, n! / (n - k)!
+	 *
+	 * @param n int number of cells
+	 * @param k int number of items
+	 * @return long number of placements
+	 */
+	static long count(int n, int k) {
+		long result = 1;
+
+		for (int i = 0; i < k; i++)
+			result *= n - i;
+
+		return result;
+	}
+
+	/**
+	 * helper function packs the first k cells of pos into a long
+	 */
+	private static long encode(int[] pos, int k) {
+		long result = 0;
+
+		for (int i = 0; i < k; i++)
+			result |= (long) pos[i] << (i * BITS);
+
+		return result;
+	}
+
+	/**
+	 * helper function unpacks a long made by encode into pos
+	 */
+	private static void decode(long state, int[] pos, int k) {
+		for (int i = 0; i < k; i++)
+			pos[i] = (int) ((state >>> (i * BITS)) & MASK);
+	}
+
+	/**
+	 * growable first in first out queue of longs
+	 */
+	private static class LongQueue {
+		private long[] items = new long[1024];
+		private int head, tail;
+
+		/** adds val to the back of the queue **/
+		private void add(long val) {
+			if (tail == items.length) {
+				long[] temp = new long[head > items.length / 2 ? items.length : items.length * 2];
+
+				System.arraycopy(items, head, temp, 0, tail - head);
+				tail -= head;
+				head = 0;
+				items = temp;
+			}
+
+			items[tail++] = val;
+		}
+
+		/** removes the value at the front of the queue **/
+		private long remove() {
+			long val = items[head++];
+
+			if (head == tail)
+				head = tail = 0;
+
+			return val;
+		}
+
+		/** returns whether or not the queue is empty **/
+		private boolean isEmpty() {
+			return head == tail;
+		}
+	}
+
+	/**
+	 * builds a database and writes it to a file.
+	 * usage : java PatternDatabase <width> <file> <piece> [<piece> ...]
+	 */
+	public static void main(String[] args) throws IOException {
+		int width = Integer.parseInt(args[0]);
+		int[] pattern = new int[args.length - 2];
+
+		for (int i = 0; i < pattern.length; i++)
+			pattern[i] = Integer.parseInt(args[i + 2]);
+
+		long start = System.currentTimeMillis();
+		build(width, pattern).write(Paths.get(args[1]));
+
+		System.out.println("Built " + args[1] + " in " + (System.currentTimeMillis() - start) + " ms");
+	}
+}
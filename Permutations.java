@@ -0,0 +1,172 @@
+/**
+ * Permutations.java turns boards, or the positions of a subset of their
+ * pieces, into dense integer indexes and back in linear time using the
+ * ranking of Myrvold and Ruskey. A permutation of n items is ranked by
+ * swapping the item at the end into its place one item at a time, so each
+ * step is O(1) with the inverse permutation at hand. Stopping after k
+ * steps ranks the last k items alone, giving an index in [0, n! / (n - k)!)
+ * for the positions of k pieces.
+ *
+ * None of the methods allocate; callers pass arrays of length n that are
+ * used as scratch space, so the same arrays can be reused for every call.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public class Permutations {
+
+	/**
+	 * returns the rank of the permutation in [0, n!).
+	 * note : perm and inverse are used as scratch space and are left changed
+	 *
+	 * @param perm int[] permutation of 0 to n - 1
+	 * @param inverse int[] inverse[perm[i]] == i on entry
+	 * @param n int number of items
+	 * @return long rank of the permutation
+	 */
+	public static long rank(int[] perm, int[] inverse, int n) {
+		return rank(perm, inverse, n, n);
+	}
+
+	/**
+	 * writes the permutation with the given rank into perm
+	 *
+	 * @param rank long rank in [0, n!)
+	 * @param perm int[] array the permutation is written to
+	 * @param n int number of items
+	 */
+	public static void unrank(long rank, int[] perm, int n) {
+		unrank(rank, perm, n, n);
+	}
+
+	/**
+	 * returns the rank of k distinct items out of 0 to n - 1 in
+	 * [0, n! / (n - k)!), for example the positions of k pieces.
+	 *
+	 * @param items int[] the k items being ranked
+	 * @param k int number of items
+	 * @param n int number of values each item can take
+	 * @param perm int[] scratch array of length n
+	 * @param inverse int[] scratch array of length n
+	 * @return long rank of the items
+	 */
+	public static long rankPartial(int[] items, int k, int n, int[] perm, int[] inverse) {
+		for (int i = 0; i < n; i++)
+			inverse[i] = -1;
+
+		// the items fill the last k slots, item 0 in the last one
+		for (int j = 0; j < k; j++) {
+			perm[n - 1 - j] = items[j];
+			inverse[items[j]] = n - 1 - j;
+		}
+
+		// every other value fills the first n - k slots in any order
+		for (int v = 0, slot = 0; v < n; v++)
+			if (inverse[v] == -1) {
+				perm[slot] = v;
+				inverse[v] = slot++;
+			}
+
+		return rank(perm, inverse, n, k);
+	}
+
+	/**
+	 * writes the k items with the given rank into items
+	 *
+	 * @param rank long rank in [0, n! / (n - k)!)
+	 * @param items int[] array the k items are written to
+	 * @param k int number of items
+	 * @param n int number of values each item can take
+	 * @param perm int[] scratch array of length n
+	 */
+	public static void unrankPartial(long rank, int[] items, int k, int n, int[] perm) {
+		unrank(rank, perm, n, k);
+
+		for (int j = 0; j < k; j++)
+			items[j] = perm[n - 1 - j];
+	}
+
+	/**
+	 * returns the rank of a board in [0, n!) where n is its number of pieces,
+	 * reading the pieces row by row.
+	 *
+	 * @param board PackedBoard board being ranked
+	 * @param perm int[] scratch array of length n
+	 * @param inverse int[] scratch array of length n
+	 * @return long rank of the board
+	 */
+	public static long rank(PackedBoard board, int[] perm, int[] inverse) {
+		int n = board.getRows() * board.getLength();
+
+		for (int p = 0; p < n; p++) {
+			perm[p] = board.tile(p);
+			inverse[perm[p]] = p;
+		}
+
+		return rank(perm, inverse, n);
+	}
+
+	/**
+	 * returns the rank of the positions of the pattern pieces of a board
+	 * in [0, n! / (n - k)!), with the pieces in the order of pattern.
+	 *
+	 * @param board PackedBoard board being ranked
+	 * @param pattern int[] the k pieces whose positions are ranked
+	 * @param items int[] scratch array of length k
+	 * @param perm int[] scratch array of length n
+	 * @param inverse int[] scratch array of length n
+	 * @return long rank of the pattern positions
+	 */
+	public static long rankPattern(PackedBoard board, int[] pattern, int[] items, int[] perm, int[] inverse) {
+		int n = board.getRows() * board.getLength();
+
+		for (int p = 0; p < n; p++) // inverse holds the position of every piece for now
+			inverse[board.tile(p)] = p;
+		for (int j = 0; j < pattern.length; j++)
+			items[j] = inverse[pattern[j]];
+
+		return rankPartial(items, pattern.length, n, perm, inverse);
+	}
+
+	/**
+	 * helper function runs the first k steps of the ranking
+	 */
+	private static long rank(int[] perm, int[] inverse, int n, int k) {
+		long result = 0, radix = 1;
+
+		for (int i = n; i > n - k; i--) {
+			int s = perm[i - 1];
+
+			// moves value i - 1 into slot i - 1 and s into the slot it came from
+			perm[inverse[i - 1]] = s;
+			perm[i - 1] = i - 1;
+			inverse[s] = inverse[i - 1];
+			inverse[i - 1] = i - 1;
+
+			result += s * radix;
+			radix *= i;
+		}
+
+		return result;
+	}
+
+	/**
+	 * helper function runs the first k steps of the unranking
+	 */
+	private static void unrank(long rank, int[] perm, int n, int k) {
+		for (int i = 0; i < n; i++)
+			perm[i] = i;
+
+		for (int i = n; i > n - k; i--) {
+			int j = (int) (rank % i), temp = perm[i - 1];
+
+			perm[i - 1] = perm[j];
+			perm[j] = temp;
+			rank /= i;
+		}
+	}
+}
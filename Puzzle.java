@@ -12,22 +12,41 @@
  * @date 9/11/2018
  */
 
-import java.lang.Math;
 import java.util.LinkedList;
 import java.util.Scanner;
 import java.util.Iterator;
 
 public class Puzzle {
 
+	private static final long CACHE_BYTES = 16 << 20; // memory budget of the solution cache
+
 	private Scanner scan; // scanner used to take inputs
-	private int boardLength;
+	private int boardLength; // number of columns of board
+	private int boardRows; // number of rows of board
 	private Board board; // current board being used in game
 	private int moves, optimal; // number of moves taken and optimal number of moves to solve
+	private SolutionTable table; // optimal moves of every board, built the first time it is needed
+	private BoardGenerator generator; // source of new random boards
+	private SolutionCache cache; // solutions of larger boards found so far
+	private Heuristic heuristic = new LinearConflictHeuristic(); // estimate used to search larger boards
 
 	public Puzzle(int length) {
+		this(length, length);
+	}
+
+	/**
+	 * creates a game on rectangular boards
+	 *
+	 * @param rows int number of rows of board
+	 * @param length int number of columns of board
+	 */
+	public Puzzle(int rows, int length) {
 		scan = new Scanner(System.in);
+		boardRows = rows;
 		boardLength = length;
 		moves = 0;
+		generator = new BoardGenerator(rows, length, System.nanoTime());
+		cache = new SolutionCache(CACHE_BYTES);
 	}
 
 	/**
@@ -48,41 +67,13 @@ public class Puzzle {
 
 
 	/**
-	 * creates array of size length^2 with numbers corresponding to their
-	 * index. Knuth shuffle is used to randomize the array and it is subsequently
-	 * used to make a 2-D array that is used to create a board
+	 * returns a random solvable board, every solvable board being equally
+	 * likely (see BoardGenerator)
 	 *
 	 * @return Board random solvable board
 	 */
 	private Board generateBoardArray() {
-		int[] temp = new int[(int) Math.pow(boardLength, 2)];
-		int[][] board = new int[boardLength][];
-		int k = 0;
-		Board result;
-		Solve solution;
-
-		for (int i = 0; i < temp.length; i++)
-			temp[i] = i;
-
-		for (int i = 0; i < temp.length; i++) // Knuth shuffle used to randomize array
-			exch(temp, i, (int) (Math.random() * i));
-
-		for (int i = 0; i < boardLength; i++) {
-			board[i] = new int[boardLength];
-
-			for (int j = 0; j < boardLength; j++) // assigns the values in temp array to 2-D board
-				board[i][j] = temp[k++];
-		}
-
-		result = new Board(board);
-
-		solution = new Solve(result);
-
-		// if the board generated was solvable, return it. Otherwise, return a twin of the board
-		if (solution.isSolvable())
-			return result;
-
-		return result.twin();
+		return generator.next();
 	}
 
 	/**
@@ -94,7 +85,7 @@ public class Puzzle {
 		Iterator<Board> solutionIterator; // iterator for sequence of moves to solution
 		boolean validMove = false, showSolution = false; // checks if move is valid every loop and check if the player gives up
 		int[] moveIndex;
-		Solve solution; // Solve class used to find solution
+		Solver solution; // Solver used to find solution
 		String moveMade = ""; // number at index to be swapped with blank
 
 		System.out.println("[8-Puzzle Game]");
@@ -125,38 +116,26 @@ public class Puzzle {
 			while (!validMove && !showSolution) { // continuous loop until a valid move is made
 				moveMade = scan.nextLine();
 
-				switch (moveMade) {
-					case "1":
-					case "2":
-					case "3":
-					case "4":
-					case "5":
-					case "6":
-					case "7":
-					case "8":
-					case "9":
-					case "0":
-					case "-1": 
-					case "-2":
-						int num = Integer.parseInt(moveMade);
-						if (num == -2)
-							exit();
-						else if (num == -1) {
-							showSolution = true;
-							break;
-						}
-						else if (num == 0) {
-							reset();
-							break;
-						}
-						else
-							if (movesList.contains(num)) {
-								validMove = true;
-								break;
-							}
-					default:
-						System.out.println("[INVALID INPUT] Please input a valid move.");
-						showMoves(movesList);
+				int num;
+
+				try {
+					num = Integer.parseInt(moveMade.trim());
+				}
+				catch (NumberFormatException e) {
+					num = Integer.MIN_VALUE; // not a number, never a valid move
+				}
+
+				if (num == -2)
+					exit();
+				else if (num == -1)
+					showSolution = true;
+				else if (num == 0)
+					reset();
+				else if (movesList.contains(num))
+					validMove = true;
+				else {
+					System.out.println("[INVALID INPUT] Please input a valid move.");
+					showMoves(movesList);
 				}
 			}
 
@@ -165,7 +144,7 @@ public class Puzzle {
 			 * of moves made thus far
 			 */
 			if (!showSolution) {
-				moveIndex = convertNumberToIndexes(Integer.parseInt(moveMade)); // gets indexes for the piece that is being moved
+				moveIndex = convertNumberToIndexes(Integer.parseInt(moveMade.trim())); // gets indexes for the piece that is being moved
 
 				System.out.print("Moving " + moveMade + " to blank space. Press enter to continue...");
 				scan.nextLine();
@@ -179,7 +158,7 @@ public class Puzzle {
 
 		// finds the shortest path from the current board to the goal board
 		if (showSolution) {
-			solution = new Solve(board);
+			solution = solve(board);
 			solutionIterator = solution.getSequence().iterator();
 			System.out.print("The solution from this board to the goal board is " + solution.getSolutionLength()
 								+ " moves.\nPress enter to show...");
@@ -199,20 +178,23 @@ public class Puzzle {
 	}
 
 	/**
-	 * helper exch function used in Knuth shuffle
+	 * finds the shortest solution of the board. Square boards up to 3x3 are
+	 * looked up in a table of every board instead of being searched, other
+	 * boards are searched once and then answered from the solution cache.
+	 * They are searched with IDA* and linear conflicts, which keeps memory
+	 * flat; A* could run out of memory on a random 4x4 board.
 	 *
-	 * @param arr int[] Integer array used for exchange
-	 * @param i int first index
-	 * @param j int second index
-	 * @return int[] array arr with index i and j exchanged
+	 * @param board Board board being solved
+	 * @return Solver solution of the board
 	 */
-	private int[] exch(int[] arr, int i, int j) {
-		int temp = arr[i];
+	private Solver solve(Board board) {
+		if (boardLength > 3 || boardRows != boardLength)
+			return cache.solve(board, b -> new IDASolve(b, heuristic));
 
-		arr[i] = arr[j];
-		arr[j] = temp;
+		if (table == null)
+			table = SolutionTable.build(boardLength);
 
-		return arr;
+		return table.solve(board);
 	}
 
 	/**
@@ -245,7 +227,7 @@ public class Puzzle {
 
 		if (blank[0] != 0)
 			result.add(board.getIndex(blank[0] - 1, blank[1]));
-		if (blank[0] != boardLength - 1)
+		if (blank[0] != boardRows - 1)
 			result.add(board.getIndex(blank[0] + 1, blank[1]));
 		if (blank[1] != 0)
 			result.add(board.getIndex(blank[0], blank[1] - 1));
@@ -271,7 +253,7 @@ public class Puzzle {
 				indexes[0] = blank[0] - 1;
 				indexes[1] = blank[1];
 			}
-		if (blank[0] != boardLength - 1)
+		if (blank[0] != boardRows - 1)
 			if (board.getIndex(blank[0] + 1, blank[1]) == num) {
 				indexes[0] = blank[0] + 1;
 				indexes[1] = blank[1];
@@ -298,8 +280,14 @@ public class Puzzle {
 		System.exit(0);
 	}
 
+	/**
+	 * starts a game, on a 3x3 board unless a side length or a number of
+	 * rows and columns is given (e.g. "2 4")
+	 */
 	public static void main(String[] args) {
-		Puzzle test = new Puzzle(3);
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		int length = args.length > 1 ? Integer.parseInt(args[1]) : rows;
+		Puzzle test = new Puzzle(rows, length);
 
 		test.play();
 	}
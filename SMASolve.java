@@ -0,0 +1,433 @@
+/**
+ * SMASolve.java finds the shortest path from the input board to the solved
+ * board without ever keeping more search nodes than a memory budget allows,
+ * using simplified memory bounded A* (SMA*, Russell 1992). It grows a search
+ * tree like A*, one successor at a time, and once the budget is full it
+ * forgets the leaf with the highest depth + estimate (the shallowest one on
+ * ties). The parent of a forgotten leaf remembers its value, so the search
+ * knows how good that part of the tree was and only grows it again if
+ * everything else turns out to be worse. Whenever every successor of a node
+ * has been seen, its value is raised to the best of theirs (backed up), so
+ * the values keep getting closer to the real solution length.
+ *
+ * The solution is optimal as long as the budget holds the path to it, i.e.
+ * at least (solution length + 1) nodes; a budget too small for that gives an
+ * IllegalArgumentException. A tighter budget only costs time spent growing
+ * forgotten parts of the tree again. Memory use is estimated at NODE_BYTES
+ * per node, which covers the node, its successor slots and its entries in
+ * the two ordered sets that hold the nodes to grow and the leaves.
+ * note : boards are packed into longs, so only boards of at most 16 pieces (e.g. 4x4, 3x5 or 2x8) are supported
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.Iterator;
+import java.util.TreeSet;
+
+public class SMASolve implements Solver {
+
+	static final int NODE_BYTES = 192; // estimated bytes used by one node in memory
+	private static final int INF = 0xFE; // value of a node that cannot lead to a solution within the budget
+	private static final int UNSEEN = 0xFF; // remembered value of a successor that is not forgotten
+	private static final int NONE = -1; // blank position stored for the input board
+
+	private boolean solvable;
+	private Solution sequence; // moves that reach the solution(null if it does not exist)
+	private SearchStats stats = new SearchStats(); // counters of the search
+	private long forgotten; // number of nodes forgotten to stay within the budget
+
+	private Heuristic heuristic; // estimate of the moves left from a board
+	private PackedBoard scratch; // board successors are generated from
+	private int[] moves = new int[4];
+	private TreeSet<Node> open; // nodes with successors that are not in memory, best first
+	private TreeSet<Node> leaves; // nodes with no successors in memory, best first
+	private int limit; // most nodes kept in memory at once
+	private int nodes; // nodes in memory
+	private long ids; // number of nodes created, used to break ties in open
+
+	/**
+	 * inner class represents a node of the search tree
+	 */
+	private static class Node implements Comparable<Node> {
+		private long board; // packed board
+		private Node parent; // node this one was generated from (null for the input board)
+		private Node[] children = new Node[4]; // successors in memory, in the order of PackedBoard.neighbors
+		private int remembered = -1; // values of forgotten successors, one byte per slot (UNSEEN if none)
+		private int slot; // slot of this node among the successors of its parent
+		private int depth; // number of moves made already
+		private int estimate; // estimated number of moves left
+		private int value; // backed up depth + estimate
+		private int from; // position of the blank before the last move (NONE for the input)
+		private int count; // number of successors in memory
+		private long id; // order the node was created in
+		private boolean queued; // whether or not the node is in open
+
+		/**
+		 * orders nodes by value, deeper nodes first on ties and then by
+		 * age, so the first node in open is the best and the last the worst
+		 *
+		 * @param other Node node being compared to
+		 * @return int compares this node and the input node
+		 */
+		public int compareTo(Node other) {
+			if (value != other.value)
+				return Integer.compare(value, other.value);
+			if (depth != other.depth)
+				return Integer.compare(other.depth, depth);
+
+			return Long.compare(id, other.id);
+		}
+
+		/**
+		 * returns the value remembered for a forgotten successor
+		 *
+		 * @param k int slot of the successor
+		 * @return int value of the successor (UNSEEN if it was not forgotten)
+		 */
+		private int remembered(int k) {
+			return (remembered >>> (k << 3)) & 0xFF;
+		}
+
+		/**
+		 * remembers the value of a successor being forgotten, or clears it
+		 * when given UNSEEN
+		 *
+		 * @param k int slot of the successor
+		 * @param value int value of the successor (at most UNSEEN)
+		 */
+		private void remember(int k, int value) {
+			remembered = (remembered & ~(0xFF << (k << 3))) | (value << (k << 3));
+		}
+	}
+
+	/**
+	 * solves the board with SMA* using manhattan distance as the heuristic
+	 *
+	 * @param board Board board being solved (at most 16 pieces)
+	 * @param budget long most bytes of memory the search may use
+	 */
+	public SMASolve(Board board, long budget) {
+		this(board, budget, new ManhattanHeuristic());
+	}
+
+	/**
+	 * solves the board with SMA* using the given heuristic
+	 *
+	 * @param board Board board being solved (at most 16 pieces)
+	 * @param budget long most bytes of memory the search may use
+	 * @param heuristic Heuristic estimate of the moves left from a board
+	 */
+	public SMASolve(Board board, long budget, Heuristic heuristic) {
+		long time = System.nanoTime();
+
+		if (!board.isPackable())
+			throw new IllegalArgumentException("Error: memory bounded search needs boards of at most 16 pieces");
+		if (budget / NODE_BYTES < 2)
+			throw new IllegalArgumentException("Error: memory budget must hold at least 2 nodes");
+
+		solvable = board.isSolvable();
+
+		if (solvable == false) { // if the board is not solvable, sequence is null
+			sequence = null;
+			stats.setupNanos = System.nanoTime() - time;
+			return;
+		}
+
+		this.heuristic = heuristic;
+		limit = (int) Math.min(budget / NODE_BYTES, Integer.MAX_VALUE);
+		scratch = new PackedBoard(board);
+		open = new TreeSet<Node>();
+		leaves = new TreeSet<Node>();
+
+		Node root = node(board.pack(), null, -1, 0, heuristic.estimate(scratch), NONE);
+
+		root.value = Math.min(root.estimate, INF);
+		queue(root);
+		leaves.add(root);
+		stats.setupNanos = System.nanoTime() - time;
+		time += stats.setupNanos;
+
+		Node goal = search();
+
+		stats.searchNanos = System.nanoTime() - time;
+		time += stats.searchNanos;
+
+		sequence = path(board, goal);
+		stats.moves = goal.depth;
+		stats.pathNanos = System.nanoTime() - time;
+	}
+
+	/**
+	 * helper function grows the tree one successor at a time from the best
+	 * node until the best node is the goal
+	 *
+	 * @return Node goal node at the end of the shortest path
+	 */
+	private Node search() {
+		while (true) {
+			Solver.checkInterrupted();
+
+			Node best = open.first();
+
+			if (best.value >= INF)
+				throw new IllegalArgumentException("Error: memory budget is too small to solve the board");
+
+			scratch.load(best.board);
+
+			if (scratch.isGoal())
+				return best;
+
+			stats.expanded++;
+
+			int blank = scratch.getBlank(), count = scratch.neighbors(moves), k = next(best, count);
+			int p = moves[k];
+
+			scratch.move(p);
+
+			Node child = node(scratch.pack(), best, k, best.depth + 1,
+					heuristic.update(scratch, best.estimate, p, blank), blank);
+
+			stats.generated++;
+			stats.evaluations++;
+
+			if (!scratch.isGoal() && child.depth >= limit - 1) // the path to it would not fit
+				child.value = INF;
+			else {
+				child.value = Math.min(INF, Math.max(best.value, child.depth + child.estimate));
+				if (best.remembered(k) != UNSEEN) // it was forgotten, and is worth what it was then
+					child.value = Math.max(child.value, best.remembered(k));
+			}
+
+			best.remember(k, UNSEEN); // the slot is in memory again
+			best.children[k] = child;
+			if (best.count++ == 0)
+				leaves.remove(best);
+			queue(child);
+			leaves.add(child);
+
+			if (next(best, count) == -1)
+				unqueue(best);
+			backup(best, count);
+
+			while (nodes > limit)
+				forget(best);
+
+			stats.open(open.size());
+			stats.closed(nodes);
+		}
+	}
+
+	/**
+	 * helper function picks the successor slot of a node to generate next:
+	 * a slot never generated before if there is one, otherwise the
+	 * forgotten one with the lowest value
+	 *
+	 * @param node Node node being expanded
+	 * @param count int number of successors of the node
+	 * @return int slot to generate (-1 if every successor is in memory)
+	 */
+	private int next(Node node, int count) {
+		int result = -1, min = Integer.MAX_VALUE;
+
+		for (int k = 0; k < count; k++) {
+			if (node.children[k] != null || moves[k] == node.from)
+				continue;
+
+			int value = node.remembered(k) == UNSEEN ? -1 : node.remembered(k);
+
+			if (value < min) {
+				min = value;
+				result = k;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * helper function raises the value of a node to the best value of its
+	 * successors once every successor has been generated at least once,
+	 * then does the same for its parent
+	 *
+	 * @param node Node node whose successors changed
+	 * @param count int number of successors of the node
+	 */
+	private void backup(Node node, int count) {
+		while (node != null) {
+			int min = INF;
+
+			for (int k = 0; k < count; k++) {
+				if (moves[k] == node.from)
+					continue;
+				if (node.children[k] != null)
+					min = Math.min(min, node.children[k].value);
+				else if (node.remembered(k) != UNSEEN)
+					min = Math.min(min, node.remembered(k));
+				else
+					return; // a successor has never been generated
+			}
+
+			if (min <= node.value)
+				return;
+
+			boolean queued = node.queued, leaf = node.count == 0;
+
+			if (queued)
+				unqueue(node);
+			if (leaf)
+				leaves.remove(node);
+			node.value = min;
+			if (queued)
+				queue(node);
+			if (leaf)
+				leaves.add(node);
+
+			node = node.parent;
+
+			if (node != null) {
+				scratch.load(node.board);
+				count = scratch.neighbors(moves);
+			}
+		}
+	}
+
+	/**
+	 * helper function forgets the worst leaf other than keep, remembering
+	 * its value in its parent and putting the parent back in open
+	 *
+	 * @param keep Node node being expanded, which is never forgotten
+	 */
+	private void forget(Node keep) {
+		Iterator<Node> worst = leaves.descendingIterator();
+		Node leaf = worst.next();
+
+		while (leaf == keep || leaf.parent == null)
+			leaf = worst.next();
+
+		Node parent = leaf.parent;
+
+		unqueue(leaf);
+		leaves.remove(leaf);
+		parent.children[leaf.slot] = null;
+		if (--parent.count == 0)
+			leaves.add(parent);
+		parent.remember(leaf.slot, leaf.value);
+		if (!parent.queued)
+			queue(parent);
+
+		leaf.parent = null;
+		nodes--;
+		forgotten++;
+	}
+
+	/**
+	 * helper function creates a node and counts it against the budget
+	 */
+	private Node node(long board, Node parent, int slot, int depth, int estimate, int from) {
+		Node result = new Node();
+
+		result.board = board;
+		result.parent = parent;
+		result.slot = slot;
+		result.depth = depth;
+		result.estimate = estimate;
+		result.from = from;
+		result.id = ids++;
+		nodes++;
+
+		return result;
+	}
+
+	/** helper function adds a node to open **/
+	private void queue(Node node) {
+		open.add(node);
+		node.queued = true;
+	}
+
+	/** helper function removes a node from open **/
+	private void unqueue(Node node) {
+		open.remove(node);
+		node.queued = false;
+	}
+
+	/**
+	 * helper function collects the moves from the input board to the goal
+	 *
+	 * @param board Board input board
+	 * @param goal Node goal node
+	 * @return Solution moves from the input board to the goal
+	 */
+	private Solution path(Board board, Node goal) {
+		byte[] moves = new byte[goal.depth];
+		int width = board.getLength();
+
+		for (Node node = goal; node.parent != null; node = node.parent) {
+			scratch.load(node.board);
+			moves[node.depth - 1] = (byte) Solution.direction(node.from, scratch.getBlank(), width);
+		}
+
+		return new Solution(board, moves);
+	}
+
+	/**
+	 * returns the number of nodes that were forgotten to stay within the budget
+	 *
+	 * @return long number of nodes forgotten
+	 */
+	public long getForgotten() {
+		return forgotten;
+	}
+
+	/**
+	 * returns the counters collected while searching. The closed size is
+	 * the largest number of nodes that were in memory at once.
+	 *
+	 * @return SearchStats counters of the search
+	 */
+	public SearchStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * returns whether or not the board was solvable
+	 *
+	 * @return boolean whether or not the board was solvable
+	 */
+	public boolean isSolvable() {
+		return solvable;
+	}
+
+	/**
+	 * returns an Iterable<Board> that replays the sequence of moves that
+	 * need to be made to solve the puzzle, one board at a time
+	 *
+	 * @return Iterable<Board> boards the moves needed to solve the
+	 * 		   puzzle pass through(null if unsolvable)
+	 */
+	public Iterable<Board> getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * returns the moves needed to solve the puzzle
+	 *
+	 * @return Solution moves of the solution(null if unsolvable)
+	 */
+	public Solution getSolution() {
+		return sequence;
+	}
+
+	/**
+	 * returns the number of moves needed to go from the board to
+	 * the solution board
+	 *
+	 * @return int number of moves needed to find solution
+	 */
+	public int getSolutionLength() {
+		return sequence.length() - 1;
+	}
+}
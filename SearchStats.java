@@ -0,0 +1,237 @@
+/**
+ * SearchStats.java holds counters describing how a solver found its
+ * solution: how many boards were expanded and generated, how many were
+ * dropped as duplicates, how many times the heuristic was evaluated, the
+ * largest the open and closed sets got and the time spent in each phase of
+ * the search. The solvers update the fields directly as they go, so
+ * collecting them costs a few increments per board and never allocates.
+ *
+ * Once a search is done the counters can be read one at a time, turned
+ * into a JSON object with toJson, or recorded as a Java Flight Recorder
+ * event with emit (which does nothing unless a recording with the
+ * puzzle.Search event enabled is running).
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+public class SearchStats {
+
+	long expanded; // boards whose neighbors were generated
+	long generated; // neighbors generated
+	long duplicates; // neighbors dropped because they were already reached as cheaply
+	long evaluations; // calls to the heuristic
+	long iterations; // searches run (bounds tried by IDA*, 1 for A*)
+	int peakOpen; // largest number of boards waiting to be expanded
+	int peakClosed; // largest number of boards remembered as reached
+	int moves = -1; // number of moves in the solution (-1 if none)
+
+	long setupNanos; // time spent before the search started
+	long searchNanos; // time spent searching
+	long pathNanos; // time spent rebuilding the solution
+
+	/**
+	 * records the size of the open set, keeping the largest one seen
+	 *
+	 * @param size int number of boards waiting to be expanded
+	 */
+	void open(int size) {
+		if (size > peakOpen)
+			peakOpen = size;
+	}
+
+	/**
+	 * records the size of the closed set, keeping the largest one seen
+	 *
+	 * @param size int number of boards remembered as reached
+	 */
+	void closed(int size) {
+		if (size > peakClosed)
+			peakClosed = size;
+	}
+
+	/** returns the number of boards whose neighbors were generated **/
+	public long getExpanded() {
+		return expanded;
+	}
+
+	/** returns the number of neighbors generated **/
+	public long getGenerated() {
+		return generated;
+	}
+
+	/** returns the number of neighbors dropped as duplicates **/
+	public long getDuplicates() {
+		return duplicates;
+	}
+
+	/** returns the number of calls to the heuristic **/
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	/** returns the number of searches run (iterations of IDA*) **/
+	public long getIterations() {
+		return iterations;
+	}
+
+	/** returns the largest number of boards waiting to be expanded **/
+	public int getPeakOpen() {
+		return peakOpen;
+	}
+
+	/** returns the largest number of boards remembered as reached **/
+	public int getPeakClosed() {
+		return peakClosed;
+	}
+
+	/** returns the number of moves in the solution (-1 if there is none) **/
+	public int getMoves() {
+		return moves;
+	}
+
+	/** returns the nanoseconds spent before the search started **/
+	public long getSetupNanos() {
+		return setupNanos;
+	}
+
+	/** returns the nanoseconds spent searching **/
+	public long getSearchNanos() {
+		return searchNanos;
+	}
+
+	/** returns the nanoseconds spent rebuilding the solution **/
+	public long getPathNanos() {
+		return pathNanos;
+	}
+
+	/** returns the nanoseconds spent in every phase together **/
+	public long getTotalNanos() {
+		return setupNanos + searchNanos + pathNanos;
+	}
+
+	/**
+	 * returns the effective branching factor b, the branching factor a
+	 * uniform tree as deep as the solution would need to hold as many
+	 * boards as were generated: generated + 1 = 1 + b + b^2 + ... + b^moves.
+	 * It is found by bisection and is 0 when there is no solution or it
+	 * has no moves.
+	 *
+	 * @return double effective branching factor
+	 */
+	public double getBranchingFactor() {
+		if (moves <= 0)
+			return 0;
+
+		double target = generated + 1, low = 0, high = Math.max(2, generated);
+
+		for (int i = 0; i < 64; i++) {
+			double mid = (low + high) / 2, sum = 1, power = 1;
+
+			for (int d = 1; d <= moves && sum <= target; d++) {
+				power *= mid;
+				sum += power;
+			}
+
+			if (sum > target)
+				high = mid;
+			else
+				low = mid;
+		}
+
+		return (low + high) / 2;
+	}
+
+	/**
+	 * returns the counters as a JSON object
+	 *
+	 * @return String JSON object with every counter
+	 */
+	public String toJson() {
+		return "{\"expanded\":" + expanded
+			 + ",\"generated\":" + generated
+			 + ",\"duplicates\":" + duplicates
+			 + ",\"evaluations\":" + evaluations
+			 + ",\"iterations\":" + iterations
+			 + ",\"peakOpen\":" + peakOpen
+			 + ",\"peakClosed\":" + peakClosed
+			 + ",\"moves\":" + moves
+			 + ",\"branchingFactor\":" + getBranchingFactor()
+			 + ",\"setupNanos\":" + setupNanos
+			 + ",\"searchNanos\":" + searchNanos
+			 + ",\"pathNanos\":" + pathNanos + "}";
+	}
+
+	/**
+	 * returns the counters as a JSON object
+	 *
+	 * @return String JSON object with every counter
+	 */
+	public String toString() {
+		return toJson();
+	}
+
+	/**
+	 * records the counters as a puzzle.Search flight recorder event if a
+	 * recording with the event enabled is running
+	 *
+	 * @param solver String name of the solver the counters came from
+	 */
+	public void emit(String solver) {
+		Event event = new Event();
+
+		if (!event.shouldCommit())
+			return;
+
+		event.solver = solver;
+		event.expanded = expanded;
+		event.generated = generated;
+		event.duplicates = duplicates;
+		event.evaluations = evaluations;
+		event.peakOpen = peakOpen;
+		event.peakClosed = peakClosed;
+		event.moves = moves;
+		event.searchTime = searchNanos;
+		event.totalTime = getTotalNanos();
+		event.commit();
+	}
+
+	/**
+	 * flight recorder event holding the counters of one search
+	 */
+	@Name("puzzle.Search")
+	@Label("Puzzle Search")
+	@Category("Puzzle")
+	static class Event extends jdk.jfr.Event {
+		@Label("Solver")
+		String solver;
+		@Label("Expanded")
+		long expanded;
+		@Label("Generated")
+		long generated;
+		@Label("Duplicates")
+		long duplicates;
+		@Label("Heuristic Evaluations")
+		long evaluations;
+		@Label("Peak Open")
+		int peakOpen;
+		@Label("Peak Closed")
+		int peakClosed;
+		@Label("Moves")
+		int moves;
+		@Label("Search Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long searchTime;
+		@Label("Total Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long totalTime;
+	}
+}
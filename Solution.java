@@ -0,0 +1,219 @@
+/**
+ * Solution.java holds a solution as the board it starts from and one byte
+ * per move, the direction the blank moves in (0 up, 1 down, 2 left,
+ * 3 right, the same order as PackedBoard.neighbors and SolutionTable). An
+ * 80 move solution of a 4x4 board takes 80 bytes instead of 80 boards.
+ *
+ * The boards along the way are only made when they are asked for: the
+ * iterator replays the moves on one PackedBoard and hands out a copy of
+ * each board as it goes, so a caller that only looks at one board at a
+ * time never holds the whole sequence. Solutions are written as the
+ * letters U, D, L and R, one per move, which is also how they are read back.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class Solution implements Iterable<Board> {
+
+	private static final String NAMES = "UDLR"; // letter of each direction
+
+	private Board start; // board the solution starts from
+	private byte[] moves; // direction the blank moves in at each step
+
+	/**
+	 * creates new instance of Solution
+	 * note : moves is kept, not copied
+	 *
+	 * @param start Board board the solution starts from
+	 * @param moves byte[] direction the blank moves in at each step
+	 */
+	Solution(Board start, byte[] moves) {
+		this.start = start;
+		this.moves = moves;
+	}
+
+	/**
+	 * returns the solution that passes through the boards of sequence
+	 *
+	 * @param start Board board the solution starts from
+	 * @param sequence Iterable<Board> boards after each move, as returned by
+	 * 		  Solver.getSequence
+	 * @return Solution moves between the boards
+	 */
+	public static Solution of(Board start, Iterable<Board> sequence) {
+		int width = start.getLength(), count = 0;
+		int[] blank = start.getBlankIndex();
+		int from = blank[0] * width + blank[1];
+		byte[] result = new byte[16];
+
+		for (Board board : sequence) {
+			blank = board.getBlankIndex();
+
+			int to = blank[0] * width + blank[1];
+
+			if (count == result.length) {
+				byte[] temp = new byte[count * 2];
+				System.arraycopy(result, 0, temp, 0, count);
+				result = temp;
+			}
+
+			result[count++] = (byte) direction(from, to, width);
+			from = to;
+		}
+
+		byte[] trimmed = new byte[count];
+		System.arraycopy(result, 0, trimmed, 0, count);
+
+		return new Solution(start, trimmed);
+	}
+
+	/**
+	 * reads a solution written by write or toString
+	 *
+	 * @param start Board board the solution starts from
+	 * @param text CharSequence one letter (U, D, L or R) per move
+	 * @return Solution solution the letters describe
+	 */
+	public static Solution parse(Board start, CharSequence text) {
+		byte[] result = new byte[text.length()];
+
+		for (int i = 0; i < result.length; i++) {
+			int move = NAMES.indexOf(text.charAt(i));
+
+			if (move == -1)
+				throw new IllegalArgumentException("Error: " + text.charAt(i) + " is not a move");
+
+			result[i] = (byte) move;
+		}
+
+		return new Solution(start, result);
+	}
+
+	/**
+	 * returns the direction (0 up, 1 down, 2 left, 3 right) the blank moves
+	 * in to get from one position to a position next to it
+	 *
+	 * @param from int position of the blank before the move
+	 * @param to int position of the blank after the move
+	 * @param width int side length of board
+	 * @return int direction of the move
+	 */
+	static int direction(int from, int to, int width) {
+		if (to == from - width)
+			return 0;
+		if (to == from + width)
+			return 1;
+		if (to == from - 1)
+			return 2;
+		if (to == from + 1)
+			return 3;
+
+		throw new IllegalArgumentException("Error: positions are not next to each other");
+	}
+
+	/**
+	 * returns the position the blank moves to from blank in a direction
+	 *
+	 * @param blank int position of the blank
+	 * @param move int direction of the move (0 up, 1 down, 2 left, 3 right)
+	 * @param width int side length of board
+	 * @return int position of the piece that slides into the blank
+	 */
+	static int step(int blank, int move, int width) {
+		switch (move) {
+			case 0:
+				return blank - width;
+			case 1:
+				return blank + width;
+			case 2:
+				return blank - 1;
+			default:
+				return blank + 1;
+		}
+	}
+
+	/**
+	 * returns the board the solution starts from
+	 *
+	 * @return Board board the solution starts from
+	 */
+	public Board getStart() {
+		return start;
+	}
+
+	/**
+	 * returns the number of moves in the solution
+	 *
+	 * @return int number of moves
+	 */
+	public int length() {
+		return moves.length;
+	}
+
+	/**
+	 * returns the direction the blank moves in at a step
+	 *
+	 * @param i int index of the move
+	 * @return int direction of the move (0 up, 1 down, 2 left, 3 right)
+	 */
+	public int getMove(int i) {
+		return moves[i];
+	}
+
+	/**
+	 * returns an iterator over the boards after each move, made one at a
+	 * time as the moves are replayed
+	 *
+	 * @return Iterator<Board> boards from the first move to the goal board
+	 */
+	public Iterator<Board> iterator() {
+		return new Iterator<Board>() {
+			private PackedBoard current = new PackedBoard(start);
+			private int next; // index of the next move
+
+			public boolean hasNext() {
+				return next < moves.length;
+			}
+
+			public Board next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				current.move(step(current.getBlank(), moves[next++], current.getLength()));
+				return current.toBoard();
+			}
+		};
+	}
+
+	/**
+	 * writes the letters of the moves to out without building a string
+	 *
+	 * @param out Appendable destination of the letters
+	 */
+	public void write(Appendable out) throws IOException {
+		for (byte move : moves)
+			out.append(NAMES.charAt(move));
+	}
+
+	/**
+	 * returns the letters of the moves, one per move
+	 *
+	 * @return String letters of the moves
+	 */
+	public String toString() {
+		StringBuilder result = new StringBuilder(moves.length);
+
+		for (byte move : moves)
+			result.append(NAMES.charAt(move));
+
+		return result.toString();
+	}
+}
@@ -0,0 +1,346 @@
+/**
+ * SolutionCache.java remembers the solutions of boards that have already
+ * been solved so the same board, or any board along a solution that was
+ * found before, is answered with a single lookup instead of a search. Every
+ * board along a cached solution points into the one move array of that
+ * solution at the move it starts from, so caching a solution of n moves
+ * stores all n boards along it for the cost of n small entries, and the
+ * optimal number of moves left and the next move of each board are read
+ * straight off its entry.
+ *
+ * Boards are keyed by the canonical form of their packed board (see
+ * Symmetry), so a board and its mirror share one entry and a solution
+ * found for one also answers the other with its moves mirrored (square
+ * boards only). Packed boards of different sizes never collide because
+ * smaller boards always end in more blank nibbles than a larger board can
+ * have; shapes with the same number of tiles (e.g. 2x4 and 4x2) can, so
+ * each entry remembers its number of rows and only answers boards of its
+ * own shape. Entries are split over
+ * several segments, each an access ordered LinkedHashMap behind its own
+ * lock, so threads rarely wait for each other, and each segment drops its
+ * least recently used entries once the cache is over its memory budget
+ * (estimated at ENTRY_BYTES per board).
+ * note : only boards of up to 16 tiles can be cached, larger boards are just solved
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class SolutionCache {
+
+	static final int ENTRY_BYTES = 96; // estimated bytes used by one cached board
+	private static final int SEGMENTS = 16; // number of independently locked segments
+
+	private Segment[] segments;
+	private LongAdder hits = new LongAdder(); // lookups that found their board
+	private LongAdder misses = new LongAdder(); // lookups that did not
+
+	/**
+	 * moves of a cached solution from one of its boards to the goal
+	 */
+	private static class Entry {
+		private byte[] moves; // moves of the whole solution, shared by its boards
+		private int from; // index of the first move from this board
+		private boolean transposed; // whether or not the key is the mirror of the board the moves are for
+		private int rows; // number of rows of the board
+
+		/** creates new instance of Entry **/
+		private Entry(byte[] moves, int from, int rows) {
+			this.moves = moves;
+			this.from = from;
+			this.rows = rows;
+		}
+	}
+
+	/**
+	 * least recently used map from packed board to its entry
+	 */
+	private static class Segment extends LinkedHashMap<Long, Entry> {
+		private static final long serialVersionUID = 1L; // never serialized, set for -Xlint
+		private int capacity; // most entries kept
+
+		/** creates new instance of Segment **/
+		private Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		/** drops the least recently used entry once the segment is full **/
+		protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	/**
+	 * creates new instance of SolutionCache
+	 *
+	 * @param budget long most bytes of memory the cache may use
+	 */
+	public SolutionCache(long budget) {
+		long entries = budget / ENTRY_BYTES;
+
+		if (entries < SEGMENTS)
+			throw new IllegalArgumentException("Error: memory budget must hold at least " + SEGMENTS + " boards");
+
+		segments = new Segment[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++)
+			segments[i] = new Segment((int) Math.min(entries / SEGMENTS, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * returns the optimal number of moves from board to the goal, or -1 if
+	 * the board is not cached
+	 *
+	 * @param board Board board being looked up
+	 * @return int number of moves to the goal (-1 if not cached)
+	 */
+	public int distance(Board board) {
+		if (!board.isPackable())
+			return -1;
+
+		Entry entry = lookup(board, key(board));
+
+		return entry == null ? -1 : entry.moves.length - entry.from;
+	}
+
+	/**
+	 * returns the direction of the first move of the optimal solution from
+	 * board (0 up, 1 down, 2 left, 3 right), or -1 if the board is not
+	 * cached or is the goal
+	 *
+	 * @param board Board board being looked up
+	 * @return int direction of the next move (-1 if unknown)
+	 */
+	public int nextMove(Board board) {
+		if (!board.isPackable())
+			return -1;
+
+		long packed = board.pack(), key = key(board);
+		Entry entry = lookup(board, key);
+
+		if (entry == null || entry.from == entry.moves.length)
+			return -1;
+
+		return entry.transposed == (key != packed) ? entry.moves[entry.from] : Symmetry.transpose(entry.moves[entry.from]);
+	}
+
+	/**
+	 * returns the solution of board if it is cached, otherwise null
+	 *
+	 * @param board Board board being looked up
+	 * @return Solution optimal solution of the board (null if not cached)
+	 */
+	public Solution get(Board board) {
+		if (!board.isPackable())
+			return null;
+
+		long packed = board.pack(), key = key(board);
+		Entry entry = lookup(board, key);
+
+		if (entry == null)
+			return null;
+
+		byte[] moves = Arrays.copyOfRange(entry.moves, entry.from, entry.moves.length);
+
+		if (entry.transposed != (key != packed)) // the moves are for the mirror of board
+			for (int i = 0; i < moves.length; i++)
+				moves[i] = (byte) Symmetry.transpose(moves[i]);
+
+		return new Solution(board, moves);
+	}
+
+	/**
+	 * caches every board along an optimal solution, each pointing at the
+	 * moves left from it
+	 *
+	 * @param solution Solution optimal solution being cached
+	 */
+	public void put(Solution solution) {
+		Board start = solution.getStart();
+
+		if (!start.isPackable())
+			return;
+
+		PackedBoard current = new PackedBoard(start);
+		byte[] moves = new byte[solution.length()];
+
+		for (int i = 0; i < moves.length; i++)
+			moves[i] = (byte) solution.getMove(i);
+
+		boolean square = start.isSquare();
+
+		for (int i = 0; i < moves.length; i++) {
+			store(current.pack(), new Entry(moves, i, current.getRows()), square, current.getLength());
+			current.move(Solution.step(current.getBlank(), moves[i], current.getLength()));
+		}
+
+		store(current.pack(), new Entry(moves, moves.length, current.getRows()), square, current.getLength());
+	}
+
+	/**
+	 * returns a solver for board whose solution comes from the cache if it
+	 * is there, otherwise from the given solver, whose solution is then
+	 * cached. Unsolvable and uncacheable boards always go to the solver.
+	 *
+	 * @param board Board board being solved
+	 * @param solver Function<Board, Solver> solver used on a miss (it has
+	 * 		  to find optimal solutions, e.g. Solve::new)
+	 * @return Solver optimal solution for the board
+	 */
+	public Solver solve(Board board, Function<Board, Solver> solver) {
+		if (!board.isPackable() || !board.isSolvable())
+			return solver.apply(board);
+
+		Solution cached = get(board);
+
+		if (cached != null)
+			return new Hit(cached);
+
+		Solver result = solver.apply(board);
+		Solution solution = result.getSolution();
+
+		put(solution != null ? solution : Solution.of(board, result.getSequence()));
+
+		return result;
+	}
+
+	/**
+	 * returns the number of boards cached
+	 *
+	 * @return long number of boards cached
+	 */
+	public long size() {
+		long result = 0;
+
+		for (Segment segment : segments)
+			synchronized (segment) {
+				result += segment.size();
+			}
+
+		return result;
+	}
+
+	/**
+	 * returns the number of boards found in the cache by distance,
+	 * nextMove, get and solve
+	 *
+	 * @return long number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * returns the number of boards not found in the cache by distance,
+	 * nextMove, get and solve
+	 *
+	 * @return long number of misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * removes every board from the cache
+	 */
+	public void clear() {
+		for (Segment segment : segments)
+			synchronized (segment) {
+				segment.clear();
+			}
+	}
+
+	/**
+	 * helper function returns the key of a packable board, its canonical
+	 * form when it is square
+	 */
+	private static long key(Board board) {
+		long packed = board.pack();
+
+		return board.isSquare() ? Symmetry.canonical(packed, board.getLength()) : packed;
+	}
+
+	/**
+	 * helper function reads the entry of a board under its key (null if
+	 * absent or cached for a board of another shape), counting the lookup
+	 * as a hit or a miss
+	 */
+	private Entry lookup(Board board, long key) {
+		Segment segment = segment(key);
+		Entry entry;
+
+		synchronized (segment) {
+			entry = segment.get(key);
+		}
+
+		if (entry == null || entry.rows != board.getRows()) {
+			misses.increment();
+			return null;
+		}
+
+		hits.increment();
+		return entry;
+	}
+
+	/**
+	 * helper function writes the entry of a packed board under its key
+	 */
+	private void store(long board, Entry entry, boolean square, int width) {
+		long key = square ? Symmetry.canonical(board, width) : board;
+		Segment segment = segment(key);
+
+		entry.transposed = key != board;
+
+		synchronized (segment) {
+			segment.put(key, entry);
+		}
+	}
+
+	/**
+	 * helper function picks the segment of a packed board
+	 */
+	private Segment segment(long board) {
+		return segments[(BoardTable.mix(board) >>> 16) & (SEGMENTS - 1)];
+	}
+
+	/**
+	 * inner class holds a solution found in the cache
+	 */
+	private static class Hit implements Solver {
+		private Solution sequence; // moves that reach the solution
+
+		/** creates new instance of Hit **/
+		private Hit(Solution sequence) {
+			this.sequence = sequence;
+		}
+
+		/** returns true, only solvable boards are cached **/
+		public boolean isSolvable() {
+			return true;
+		}
+
+		/** returns the boards from the first move to the goal **/
+		public Iterable<Board> getSequence() {
+			return sequence;
+		}
+
+		/** returns the moves of the solution **/
+		public Solution getSolution() {
+			return sequence;
+		}
+
+		/** returns the number of moves needed to find solution **/
+		public int getSolutionLength() {
+			return sequence.length() - 1;
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/**
+ * SolutionTable.java stores the optimal number of moves and the best first
+ * move of every board of a small puzzle (up to 3x3, where there are only
+ * 9! / 2 = 181,440 solvable boards), so solutions are looked up instead of
+ * searched for. The table is filled by one breadth first search out from
+ * the goal; a board first reached from a board d moves from the goal is
+ * d + 1 moves from the goal, and its best move is back to that board.
+ *
+ * Boards are indexed by the Lehmer code rank of their pieces read row by
+ * row, with one byte per board: the best move of the blank (0 up, 1 down,
+ * 2 left, 3 right) in the top 2 bits and the number of moves in the low 6
+ * bits (0xFF for unsolvable boards). Saved tables are a "SOL1" magic int,
+ * the side length and then the bytes, and are mapped read only when loaded
+ * just like pattern databases, so many processes share one copy.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class SolutionTable {
+
+	private static final int MAGIC = 0x534F4C31; // "SOL1"
+	private static final int HEADER = 8; // bytes before the entries in a saved table
+	private static final int UNSOLVABLE = 0xFF;
+
+	private int width; // side length of board
+	private ByteBuffer table; // one byte per board
+	private int offset; // index in table where the entries start
+
+	/**
+	 * creates new instance of SolutionTable over an existing table
+	 */
+	private SolutionTable(int width, ByteBuffer table, int offset) {
+		this.width = width;
+		this.table = table;
+		this.offset = offset;
+	}
+
+	/**
+	 * returns the side length of board the table is for
+	 *
+	 * @return int side length of board
+	 */
+	public int getLength() {
+		return width;
+	}
+
+	/**
+	 * returns the optimal number of moves from board to the goal,
+	 * or -1 if the board is unsolvable
+	 *
+	 * @param board Board board being looked up
+	 * @return int number of moves to the goal (-1 if unsolvable)
+	 */
+	public int distance(Board board) {
+		if (board.getLength() != width || board.getRows() != width)
+			throw new IllegalArgumentException("Error: board does not match the table size");
+
+		int entry = entry(new PackedBoard(board));
+
+		return entry == UNSOLVABLE ? -1 : entry & 0x3F;
+	}
+
+	/**
+	 * returns a solver whose results come from the table. Finding the path
+	 * takes one lookup and one move per step of the solution.
+	 *
+	 * @param board Board board being solved
+	 * @return Solver optimal solution for the board
+	 */
+	public Solver solve(Board board) {
+		if (board.getLength() != width || board.getRows() != width)
+			throw new IllegalArgumentException("Error: board does not match the table size");
+
+		PackedBoard current = new PackedBoard(board);
+		int entry = entry(current);
+
+		if (entry == UNSOLVABLE)
+			return new Lookup(null);
+
+		byte[] moves = new byte[entry & 0x3F];
+
+		for (int i = 0; i < moves.length; i++) {
+			moves[i] = (byte) (entry >>> 6);
+			current.move(Solution.step(current.getBlank(), moves[i], width));
+			entry = entry(current);
+		}
+
+		return new Lookup(new Solution(board, moves));
+	}
+
+	/**
+	 * helper function reads the entry of a board
+	 *
+	 * @param board PackedBoard board being looked up
+	 * @return int entry of the board
+	 */
+	private int entry(PackedBoard board) {
+		return table.get(offset + rank(board)) & 0xFF;
+	}
+
+	/**
+	 * builds the table for boards of the given side length
+	 *
+	 * @param width int side length of board (at most 3)
+	 * @return SolutionTable table of every board
+	 */
+	public static SolutionTable build(int width) {
+		if (width < 2 || width > 3)
+			throw new IllegalArgumentException("Error: solution tables only support 2x2 and 3x3 boards");
+
+		int n = width * width;
+		byte[] result = new byte[factorial(n)];
+		long[] queue = new long[result.length / 2]; // every solvable board once
+		int head = 0, tail = 0;
+		int[][] goal = new int[width][width];
+		int[] moves = new int[4];
+
+		for (int i = 0; i < result.length; i++)
+			result[i] = (byte) UNSOLVABLE;
+		for (int p = 0; p < n - 1; p++)
+			goal[p / width][p % width] = p + 1;
+
+		PackedBoard board = new PackedBoard(new Board(goal));
+
+		result[rank(board)] = 0;
+		queue[tail++] = board.pack();
+
+		while (head < tail) {
+			board.load(queue[head++]);
+
+			int blank = board.getBlank(), depth = (result[rank(board)] & 0x3F) + 1;
+			int count = board.neighbors(moves);
+
+			for (int k = 0; k < count; k++) {
+				board.move(moves[k]);
+
+				int index = rank(board);
+
+				if (result[index] == (byte) UNSOLVABLE) {
+					// the blank moved from blank to moves[k], so the best move goes back
+					result[index] = (byte) (Solution.direction(moves[k], blank, width) << 6 | depth);
+					queue[tail++] = board.pack();
+				}
+
+				board.move(blank);
+			}
+		}
+
+		return new SolutionTable(width, ByteBuffer.wrap(result), 0);
+	}
+
+	/**
+	 * saves the table to a file in the format described above
+	 *
+	 * @param file Path file being written
+	 */
+	public void write(Path file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER);
+		ByteBuffer entries = table.duplicate();
+
+		header.putInt(MAGIC).putInt(width).flip();
+		entries.position(offset);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (header.hasRemaining())
+				channel.write(header);
+			while (entries.hasRemaining())
+				channel.write(entries);
+		}
+	}
+
+	/**
+	 * maps a table file written by write into memory
+	 *
+	 * @param file Path file being loaded
+	 * @return SolutionTable table stored in the file
+	 */
+	public static SolutionTable load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (table.getInt(0) != MAGIC)
+				throw new IOException("Error: " + file + " is not a solution table");
+
+			int width = table.getInt(4);
+
+			if (channel.size() != HEADER + factorial(width * width))
+				throw new IOException("Error: " + file + " has the wrong size");
+
+			return new SolutionTable(width, table, HEADER);
+		}
+	}
+
+	/**
+	 * returns the Lehmer code rank of the pieces of the board read row by
+	 * row: each piece is numbered by how many later pieces are smaller
+	 *
+	 * @param board PackedBoard board being ranked
+	 * @return int rank of the board in [0, n!)
+	 */
+	static int rank(PackedBoard board) {
+		int n = board.getRows() * board.getLength(), result = 0;
+
+		for (int i = 0; i < n; i++) {
+			int t = board.tile(i), smaller = 0;
+
+			for (int j = i + 1; j < n; j++)
+				if (board.tile(j) < t)
+					smaller++;
+
+			result = result * (n - i) + smaller;
+		}
+
+		return result;
+	}
+
+	/**
+	 * helper function returns n!
+	 */
+	private static int factorial(int n) {
+		int result = 1;
+
+		for (int i = 2; i <= n; i++)
+			result *= i;
+
+		return result;
+	}
+
+	/**
+	 * inner class holds the results of a lookup
+	 */
+	private static class Lookup implements Solver {
+		private Solution sequence; // moves that reach the solution(null if it does not exist)
+
+		/** creates new instance of Lookup **/
+		private Lookup(Solution sequence) {
+			this.sequence = sequence;
+		}
+
+		/** returns whether or not the board was solvable **/
+		public boolean isSolvable() {
+			return sequence != null;
+		}
+
+		/** returns the boards from the first move to the goal (null if unsolvable) **/
+		public Iterable<Board> getSequence() {
+			return sequence;
+		}
+
+		/** returns the moves of the solution (null if unsolvable) **/
+		public Solution getSolution() {
+			return sequence;
+		}
+
+		/** returns the number of moves needed to find solution **/
+		public int getSolutionLength() {
+			return sequence.length() - 1;
+		}
+	}
+
+	/**
+	 * builds a table and writes it to a file.
+	 * usage : java SolutionTable <width> <file>
+	 */
+	public static void main(String[] args) throws IOException {
+		long start = System.currentTimeMillis();
+
+		build(Integer.parseInt(args[0])).write(Paths.get(args[1]));
+
+		System.out.println("Built " + args[1] + " in " + (System.currentTimeMillis() - start) + " ms");
+	}
+}
@@ -0,0 +1,184 @@
+/**
+ * SolutionWriter.java writes solutions as they come out of a batch, one
+ * line per board, so a batch of any size can be written without keeping
+ * its results. Each line holds the index of the board in the batch, its
+ * status and, for solved boards, the number of moves and the moves as
+ * letters (see Solution):
+ *
+ *	<index>	solved	<moves>	<letters>
+ *	<index>	unsolvable
+ *	<index>	timeout
+ *	<index>	error	<message>
+ *
+ * A writer made with stats on also ends each solved line with the boards
+ * expanded and generated by the search (- if the solver does not count
+ * them) and the microseconds spent solving the board:
+ *
+ *	<index>	solved	<moves>	<letters>	<expanded>	<generated>	<micros>
+ *
+ * Solutions are written straight from their move bytes through a buffered
+ * writer, so writing a result never builds its boards or a string of it.
+ * It can be handed to BatchSolve.solveEach directly, which calls it one
+ * result at a time.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+public class SolutionWriter implements Consumer<BatchSolve.Result>, Closeable, Flushable {
+
+	private static final int BUFFER = 1 << 16; // characters buffered before a file write
+
+	private Writer out; // destination of the lines
+	private boolean stats; // whether or not solved lines end with the search counters and time
+
+	/**
+	 * creates new instance of SolutionWriter writing to out
+	 *
+	 * @param out Writer destination of the lines (buffered if it is not already)
+	 */
+	public SolutionWriter(Writer out) {
+		this(out, false);
+	}
+
+	/**
+	 * creates new instance of SolutionWriter writing to out
+	 *
+	 * @param out Writer destination of the lines (buffered if it is not already)
+	 * @param stats boolean whether or not solved lines end with the search
+	 * 		  counters and time
+	 */
+	public SolutionWriter(Writer out, boolean stats) {
+		this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, BUFFER);
+		this.stats = stats;
+	}
+
+	/**
+	 * creates new instance of SolutionWriter writing to a new file
+	 *
+	 * @param file Path file being written
+	 */
+	public SolutionWriter(Path file) throws IOException {
+		this(file, false);
+	}
+
+	/**
+	 * creates new instance of SolutionWriter writing to a new file
+	 *
+	 * @param file Path file being written
+	 * @param stats boolean whether or not solved lines end with the search
+	 * 		  counters and time
+	 */
+	public SolutionWriter(Path file, boolean stats) throws IOException {
+		this(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), stats);
+	}
+
+	/**
+	 * writes the line for a board and the solver that solved it
+	 *
+	 * @param index long index of the board in the batch
+	 * @param board Board board that was solved
+	 * @param solver Solver solver that solved the board
+	 */
+	public void write(long index, Board board, Solver solver) throws IOException {
+		write(index, board, solver, -1);
+	}
+
+	/**
+	 * helper function writes the line for a board and the solver that
+	 * solved it, with the counters and time if stats are on
+	 *
+	 * @param index long index of the board in the batch
+	 * @param board Board board that was solved
+	 * @param solver Solver solver that solved the board
+	 * @param time long nanoseconds spent solving (-1 if unknown)
+	 */
+	private void write(long index, Board board, Solver solver, long time) throws IOException {
+		out.write(Long.toString(index));
+
+		if (!solver.isSolvable())
+			out.write("\tunsolvable\n");
+		else {
+			Solution solution = solver.getSolution();
+
+			if (solution == null) // the solver only keeps its boards
+				solution = Solution.of(board, solver.getSequence());
+
+			out.write("\tsolved\t");
+			out.write(Integer.toString(solution.length()));
+			out.write('\t');
+			solution.write(out);
+
+			if (stats) {
+				SearchStats counters = solver.getStats();
+
+				out.write('\t');
+				out.write(counters == null ? "-" : Long.toString(counters.getExpanded()));
+				out.write('\t');
+				out.write(counters == null ? "-" : Long.toString(counters.getGenerated()));
+				out.write('\t');
+				out.write(time < 0 ? "-" : Long.toString(time / 1000));
+			}
+
+			out.write('\n');
+		}
+	}
+
+	/**
+	 * writes the line for a result of a batch
+	 *
+	 * @param result BatchSolve.Result result being written
+	 */
+	public void write(BatchSolve.Result result) throws IOException {
+		if (result.getSolver() != null)
+			write(result.getIndex(), result.getBoard(), result.getSolver(), result.getTime());
+		else if (result.isTimedOut())
+			out.write(result.getIndex() + "\ttimeout\n");
+		else
+			out.write(result.getIndex() + "\terror\t" + String.valueOf(result.getError()).replace('\n', ' ') + "\n");
+	}
+
+	/**
+	 * writes the line for a result of a batch, throwing any IOException as
+	 * an UncheckedIOException so it can be used as a Consumer
+	 *
+	 * @param result BatchSolve.Result result being written
+	 */
+	public void accept(BatchSolve.Result result) {
+		try {
+			write(result);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * writes out any buffered lines
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * writes out any buffered lines and closes the destination
+	 */
+	public void close() throws IOException {
+		out.close();
+	}
+}
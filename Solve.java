@@ -1,6 +1,13 @@
 /**
  * Solve.java uses the A* algorithm to find the shortest
- * path from the input board to the solved board.
+ * path from the input board to the solved board. A board and its mirror
+ * (see Symmetry) can be made to count as the same board when checking
+ * whether a board has already been reached. That is off by default: on
+ * scrambled 4x4 boards it saves well under 1% of the expansions while
+ * every generated board pays for finding its canonical form.
+ * Neighbors are generated by moving the pieces of one reused PackedBoard,
+ * so a Board is only built for a neighbor that is queued (boards of more
+ * than 16 pieces are keyed by Board in the table, so they always get one).
  *
  * @author Jeremy Fang
  * 
@@ -9,18 +16,18 @@
  * @date 9/10/2018
  */
 
-import java.util.LinkedList;
-import java.util.Iterator;
-import java.util.Stack;
+public class Solve implements Solver {
 
-public class Solve {
-
-	/* LinkedList will contain all boards that were already checked 
-	 * in the normal board and the twin
-	 */ 
-	private LinkedList<Board> used, tused;
 	private boolean solvable;
-	private Stack<Board> sequence; // sequence of moves to reach solution(null if it does not exist)
+	private Solution sequence; // moves that reach the solution(null if it does not exist)
+	private SearchStats stats = new SearchStats(); // counters of the search
+
+	/**
+	 * kinds of priority queue that can hold the search nodes. HEAP works
+	 * for any priority, BUCKET relies on priorities being small integers
+	 * (depth + estimate) and does every queue operation in O(1).
+	 */
+	public enum QueueType { HEAP, BUCKET }
 
 	/**
 	 * inner class represents search node when looking for solution.
@@ -28,139 +35,267 @@ public class Solve {
 	 * is the parent if this node, and the priority of the search node
 	 * (lower is higher priority)
 	 */
-	private static class State implements Comparable<State> {
+	private static class State implements Comparable<State>, BucketPQ.Keyed, MinPQ.Indexed {
 		private Board board; // state of board stored in node
 		private State parent; // parent of this board state
 		private int depth; // number of moves made already
-
+		private int estimate; // estimated number of moves left from the heuristic
+		private int from; // position of the blank before the last move (-1 for the input board)
+		private int slot; // slot of the state in the heap of a MinPQ
 
 		/**
 		 * initializes the state with the input variables of the same 
 		 * name
 		 */
-		private State(Board board, State parent, int depth) {
+		private State(Board board, State parent, int depth, int estimate, int from) {
 			this.board = board;
 			this.parent = parent;
 			this.depth = depth;
+			this.estimate = estimate;
+			this.from = from;
 		}
 
 		/**
 		 * compares this state with another state. If this states
 		 * priority is higher, 1 is returned and this state is 
 		 * picked after other, if they are equal, 0 is returned and
-		 * if other has lower priority -1 is returned
+		 * if other has lower priority -1 is returned. When the priorities
+		 * tie the deeper state is picked first since it is closer to the goal
 		 *
 		 * @param other State other board stat
 e		 * @return int compares this state and the input state
 		 */
 		public int compareTo(State other) {
-			int tprio = this.depth + this.board.manhattan();
-			int oprio = other.depth + other.board.manhattan();
+			int tprio = this.depth + this.estimate;
+			int oprio = other.depth + other.estimate;
 
 			if (tprio > oprio)
 				return 1;
-			else if (tprio == oprio)
+			else if (tprio < oprio)
+				return -1;
+			else if (this.depth < other.depth)
+				return 1;
+			else if (this.depth == other.depth)
 				return 0;
 			else
 				return -1;
 		}
+
+		/**
+		 * returns the priority of the state used as its bucket in a BucketPQ
+		 *
+		 * @return int depth plus estimated moves left of the state
+		 */
+		public int key() {
+			return depth + estimate;
+		}
+
+		/** returns the slot of the state in the heap of a MinPQ **/
+		public int getSlot() {
+			return slot;
+		}
+
+		/** records the slot of the state in the heap of a MinPQ **/
+		public void setSlot(int slot) {
+			this.slot = slot;
+		}
+
+		/**
+		 * two states are equal when they hold equal boards, this lets the
+		 * priority queue find the queued state for a board
+		 *
+		 * @param other Object object being compared to this state
+		 * @return boolean whether or not both states hold the same board
+		 */
+		public boolean equals(Object other) {
+			if (!(other instanceof State))
+				return false;
+
+			return board.equals(((State) other).board);
+		}
+
+		/**
+		 * returns the hash code of the board held in the state
+		 *
+		 * @return int hash code of the state
+		 */
+		public int hashCode() {
+			return board.hashCode();
+		}
 	}
 
+	/**
+	 * solves the board using a binary heap as the priority queue
+	 *
+	 * @param board Board board being solved
+	 */
 	public Solve(Board board) {
-		MinPQ<State> pq = new MinPQ<State>(); // priority queue used for finding solution board
-		/* State variable used to find the lowest priority board in the queue.
-		 * initialized to null before the loop is started
-		 */
-		State min = null;
-		used = new LinkedList<Board>();
+		this(board, QueueType.HEAP, new ManhattanHeuristic());
+	}
 
-		MinPQ<State> tpq = new MinPQ<State>(); // pq that uses twin of input board
-		State tmin = null;
-		tused = new LinkedList<Board>();
+	/**
+	 * solves the board using the given kind of priority queue and
+	 * manhattan distance as the heuristic
+	 *
+	 * @param board Board board being solved
+	 * @param type QueueType kind of priority queue used for the search
+	 */
+	public Solve(Board board, QueueType type) {
+		this(board, type, new ManhattanHeuristic());
+	}
 
-		pq.add(new State(board, null, 0)); // add first board to the pq
-		tpq.add(new State(board.twin(), null, 0)); // add first twin board to the pq
+	/**
+	 * solves the board using the given kind of priority queue and heuristic
+	 *
+	 * @param board Board board being solved
+	 * @param type QueueType kind of priority queue used for the search
+	 * @param heuristic Heuristic estimate of the moves left from a board
+	 */
+	public Solve(Board board, QueueType type, Heuristic heuristic) {
+		this(board, type, heuristic, false);
+	}
 
-		sequence = new Stack<Board>();
+	/**
+	 * solves the board using the given kind of priority queue and heuristic.
+	 * A board and its mirror are the same number of moves from the goal, so
+	 * once either has been reached, reaching the other at the same depth or
+	 * deeper cannot lead to a shorter solution and it is skipped.
+	 *
+	 * @param board Board board being solved
+	 * @param type QueueType kind of priority queue used for the search
+	 * @param heuristic Heuristic estimate of the moves left from a board
+	 * @param symmetric boolean whether or not a board and its mirror count as
+	 * 		  the same board in the set of reached boards
+	 */
+	public Solve(Board board, QueueType type, Heuristic heuristic, boolean symmetric) {
+		Frontier<State> pq = newQueue(type); // priority queue used for finding solution board
+		State min; // State variable used to find the lowest priority board in the queue
+		BoardTable used = new BoardTable(symmetric); // shortest depth every board (or its mirror) has been reached at so far
+		PackedBoard scratch; // board being expanded, its neighbors are made by moving its pieces
+		int[] neighbors = new int[4]; // positions of the pieces that can slide into the blank
+		boolean packable = board.isPackable(); // larger boards are keyed by Board in used
+		long time = System.nanoTime();
+
+		/**
+		 * the parity of the board decides whether or not it can be solved, so
+		 * unsolvable boards are rejected before any search is done
+		 */
+		solvable = board.isSolvable();
+
+		if (solvable == false) { // if the board is not solvable, sequence is null
+			sequence = null;
+			stats.setupNanos = System.nanoTime() - time;
+			return;
+		}
+
+		scratch = new PackedBoard(board);
+		pq.add(new State(board, null, 0, heuristic.estimate(board), -1)); // add first board to the pq
+		used.put(board, 0);
+		stats.evaluations++;
+		stats.iterations++;
 
 		/**
 		 * implementation of A* algorithm to find the shortest path from the input
 		 * board to the solution board
 		 */
-		while (min == null || (!min.board.isGoal() && !tmin.board.isGoal())) {
-			min = pq.removeMin();
-			Iterator<Board> neighbors = min.board.findNeighbors().iterator();
-			int depth = min.depth;
+		stats.setupNanos = System.nanoTime() - time;
+		time += stats.setupNanos;
+		min = pq.removeMin();
 
-			tmin = tpq.removeMin();
+		while (!min.board.isGoal()) {
+			Solver.checkInterrupted();
+			stats.expanded++;
+
+			scratch.load(min.board);
+
+			int blank = scratch.getBlank(), count = scratch.neighbors(neighbors), depth = min.depth;
 
 			/**
 			 * iterates through the neighbors of the min board and checks to see if they
 			 * should be added to the queue
 			 **/
-			while (neighbors.hasNext()) {
-				Board checking = neighbors.next();
+			for (int i = 0; i < count; i++) {
+				int p = neighbors[i];
+				stats.generated++;
 
 				/**
 				 * checks the following conditions to see if the board should be added
 				 * 1. is it a repeat board from making a move and undoing it?
 				 * 2. has that board already been reached before with a shorter path?
+				 * if the board is already waiting in the queue its depth is lowered
+				 * instead of queueing it a second time, and a board that was already
+				 * expanded is queued again if this path to it is shorter
 				 */ 
-				if (min.parent == null || min.parent.parent == null || !checking.equals(min.parent.parent.board))
-					if (!used.contains(checking))
-						pq.add(new State(checking, min, depth + 1));
-			}
+				if (p == min.from) {
+					stats.duplicates++;
+					continue;
+				}
 
-			used.add(min.board); // adds that board that was just checked to the used boards
+				scratch.move(p);
 
-			/**
-			 * runs algorithm on twin of the initial board as well. This is because
-			 * when any two pieces(not the blank) in an 8-puzzle are swapped, the puzzle becomes
-			 * solvable if it was unsolvable and vice versa
-			 */
-			neighbors = tmin.board.findNeighbors().iterator();
-			depth = tmin.depth;
-
-			while (neighbors.hasNext()) {
-				Board checking = neighbors.next();
-
-				if (tmin.parent == null || tmin.parent.parent == null || !checking.equals(tmin.parent.parent.board))
-					if (!tused.contains(checking))
-						tpq.add(new State(checking, tmin, depth + 1));
+				Board checking = packable ? null : min.board.move(p);
+
+				if (packable ? used.put(scratch, depth + 1) : used.put(checking, depth + 1)) {
+					if (checking == null)
+						checking = min.board.move(p);
+
+					offer(pq, new State(checking, min, depth + 1, heuristic.update(scratch, min.estimate, p, blank), blank));
+					stats.evaluations++;
+				}
+				else
+					stats.duplicates++;
+
+				scratch.move(blank); // slide the piece back
 			}
 
-			tused.add(tmin.board);
+			stats.open(pq.size());
+			min = pq.removeMin();
 		}
 
-		/**
-		 * boolean finds whether or not the initial board was solvable
-		 */
-		if (min.board.isGoal())
-			solvable = true;
-		else
-			solvable = false;
+		stats.closed(used.size());
+		stats.moves = min.depth;
+		stats.searchNanos = System.nanoTime() - time;
+		time += stats.searchNanos;
 
-		if (solvable == false) // if the board is not solvable, sequence is null
-			sequence = null;
-		else // if the board is solvable then the sequence is stored in a stack
-			while (min.board != board) {
-				sequence.add(min.board);
-				min = min.parent;
-			}
+		// the moves are read from the goal back to the first move
+		byte[] moves = new byte[min.depth];
+		int width = board.getLength();
 
-		if (sequence != null) {
-			Stack<Board> tmp = new Stack<Board>();
+		for (int d = min.depth - 1; d >= 0; d--, min = min.parent) {
+			int[] to = min.board.getBlankIndex(), from = min.parent.board.getBlankIndex();
 
-			/**
-		 	* reverses the sequence of sequence stack so that
-		 	* the solution is read from initial board to the goal
-		 	* board
-		 	*/
-			while (!sequence.isEmpty())
-				tmp.push(sequence.pop());
-
-			sequence = tmp;
+			moves[d] = (byte) Solution.direction(from[0] * width + from[1], to[0] * width + to[1], width);
 		}
+
+		sequence = new Solution(board, moves);
+		stats.pathNanos = System.nanoTime() - time;
+	}
+
+	/**
+	 * creates an empty priority queue of the given kind
+	 *
+	 * @param type QueueType kind of priority queue
+	 * @return Frontier<State> empty queue
+	 */
+	private static Frontier<State> newQueue(QueueType type) {
+		if (type == QueueType.BUCKET)
+			return new BucketPQ<State>();
+		else
+			return new MinPQ<State>();
+	}
+
+	/**
+	 * adds the state to the queue, or if a state with the same board is
+	 * already queued, keeps whichever of the two has the shorter path
+	 *
+	 * @param pq Frontier<State> queue the state is offered to
+	 * @param state State state being offered
+	 */
+	private static void offer(Frontier<State> pq, State state) {
+		if (pq.contains(state))
+			pq.decreaseKey(state);
+		else
+			pq.add(state);
 	}
 
 	/**
@@ -173,16 +308,25 @@ e		 * @return int compares this state and the input state
 	}
 
 	/**
-	 * returns an Iterable<Board> stack that contains the 
-	 * sequence of moves that need to be made to solve the puzzle
+	 * returns an Iterable<Board> that replays the sequence of moves that
+	 * need to be made to solve the puzzle, one board at a time
 	 *
-	 * @return Iterable<Board> stack that contains the moves needed to
-	 * 		   solve the puzzle(null if unsolvable)
+	 * @return Iterable<Board> boards the moves needed to solve the
+	 * 		   puzzle pass through(null if unsolvable)
 	 */
 	public Iterable<Board> getSequence() {
 		return sequence;
 	}
 
+	/**
+	 * returns the moves needed to solve the puzzle
+	 *
+	 * @return Solution moves of the solution(null if unsolvable)
+	 */
+	public Solution getSolution() {
+		return sequence;
+	}
+
 	/**
 	 * returns the number of moves needed to go from the board to 
 	 * the solution board
@@ -190,7 +334,16 @@ e		 * @return int compares this state and the input state
 	 * @return int number of moves needed to find solution
 	 */
 	public int getSolutionLength() {
-		return sequence.size() - 1;
+		return sequence.length() - 1;
+	}
+
+	/**
+	 * returns the counters collected while searching
+	 *
+	 * @return SearchStats counters of the search
+	 */
+	public SearchStats getStats() {
+		return stats;
 	}
 
 	public static void main(String[] args) {
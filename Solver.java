@@ -0,0 +1,68 @@
+/**
+ * Solver.java is the interface shared by the different search algorithms
+ * that find the shortest sequence of moves from a board to the goal board.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.concurrent.CancellationException;
+
+public interface Solver {
+
+	/**
+	 * returns whether or not the board was solvable
+	 *
+	 * @return boolean whether or not the board was solvable
+	 */
+	boolean isSolvable();
+
+	/**
+	 * returns the boards that the moves of the solution pass through, in
+	 * order, ending with the goal board (null if unsolvable)
+	 *
+	 * @return Iterable<Board> sequence of boards to the goal
+	 */
+	Iterable<Board> getSequence();
+
+	/**
+	 * returns the number of moves needed to go from the board to 
+	 * the solution board
+	 *
+	 * @return int number of moves needed to find solution
+	 */
+	int getSolutionLength();
+
+	/**
+	 * returns the solution as a compact list of moves, or null if the board
+	 * is unsolvable or the solver does not keep one (see Solution.of)
+	 *
+	 * @return Solution moves of the solution (null if not available)
+	 */
+	default Solution getSolution() {
+		return null;
+	}
+
+	/**
+	 * returns the counters collected while searching (see SearchStats),
+	 * or null if the solver does not collect them
+	 *
+	 * @return SearchStats counters of the search (null if not collected)
+	 */
+	default SearchStats getStats() {
+		return null;
+	}
+
+	/**
+	 * throws CancellationException if the thread running the search has
+	 * been interrupted. Searches call this as they go so that BatchSolve
+	 * can stop the ones that run past their timeout.
+	 */
+	static void checkInterrupted() {
+		if (Thread.currentThread().isInterrupted())
+			throw new CancellationException("Error: search was interrupted");
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Symmetry.java maps boards to their mirror image about the main diagonal.
+ * Transposing a board moves the piece at (row, col) to (col, row) and
+ * renames every piece to the piece whose goal position is the transpose
+ * of its own, so the goal board is its own mirror and a board and its
+ * mirror are exactly the same number of moves from the goal. A move of the
+ * blank up, down, left or right on a board is a move left, right, up or
+ * down on its mirror, so a solution of one is turned into a solution of
+ * the other by swapping the directions of its moves.
+ *
+ * Searches and tables can therefore treat a board and its mirror as one
+ * board by keying them on the canonical form, the smaller of the two
+ * packed values, which about halves the boards that have to be stored.
+ * note : only square boards have a mirror of the same shape
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+public class Symmetry {
+
+	private static final int[][] POSITIONS = new int[5][]; // mirror of each position by side length
+	private static final int[][] PIECES = new int[5][]; // mirror of each piece by side length
+
+	static {
+		for (int width = 2; width <= 4; width++) {
+			POSITIONS[width] = positions(width);
+			PIECES[width] = pieces(width);
+		}
+	}
+
+	/**
+	 * no instances, every method is static
+	 */
+	private Symmetry() {}
+
+	/**
+	 * returns the position (row * width + col) each position is mirrored to
+	 *
+	 * @param width int side length of board
+	 * @return int[] result[p] is the mirror of position p
+	 */
+	static int[] positions(int width) {
+		int[] result = new int[width * width];
+
+		for (int p = 0; p < result.length; p++)
+			result[p] = (p % width) * width + p / width;
+
+		return result;
+	}
+
+	/**
+	 * returns the piece each piece is renamed to on the mirror, the piece
+	 * whose goal position is the mirror of its own (the blank stays 0)
+	 *
+	 * @param width int side length of board
+	 * @return int[] result[t] is the mirror of piece t
+	 */
+	static int[] pieces(int width) {
+		int[] positions = positionsOf(width);
+		int[] result = new int[width * width];
+
+		for (int t = 1; t < result.length; t++)
+			result[t] = positions[t - 1] + 1;
+
+		return result;
+	}
+
+	/**
+	 * returns the mirror of a packed board (see Board.pack)
+	 *
+	 * @param packed long packed board
+	 * @param width int side length of board (at most 4)
+	 * @return long packed mirror of the board
+	 */
+	public static long transpose(long packed, int width) {
+		int[] positions = POSITIONS[width], pieces = PIECES[width];
+		long result = 0;
+
+		for (int p = 0; p < positions.length; p++, packed >>>= 4)
+			result |= (long) pieces[(int) (packed & 0xF)] << (positions[p] << 2);
+
+		return result;
+	}
+
+	/**
+	 * returns the canonical form of a packed board, the smaller of the
+	 * board and its mirror, which is the same for both of them
+	 *
+	 * @param packed long packed board
+	 * @param width int side length of board (at most 4)
+	 * @return long packed canonical board
+	 */
+	public static long canonical(long packed, int width) {
+		return Math.min(packed, transpose(packed, width));
+	}
+
+	/**
+	 * returns the mirror of a board
+	 *
+	 * @param board Board board being mirrored
+	 * @return Board mirror of the board
+	 */
+	public static Board transpose(Board board) {
+		int width = board.getLength();
+		int[] pieces = piecesOf(width);
+		int[][] result = new int[width][width];
+
+		for (int i = 0; i < width; i++)
+			for (int j = 0; j < width; j++)
+				result[j][i] = pieces[board.getIndex(i, j)];
+
+		return new Board(result);
+	}
+
+	/**
+	 * returns the direction a move is mirrored to (up and left swap, and
+	 * so do down and right)
+	 *
+	 * @param move int direction of the move (0 up, 1 down, 2 left, 3 right)
+	 * @return int direction of the mirrored move
+	 */
+	public static int transpose(int move) {
+		return move ^ 2;
+	}
+
+	/**
+	 * returns the mirror of a solution, which starts from the mirror of its
+	 * board and makes the mirror of each of its moves
+	 *
+	 * @param solution Solution solution being mirrored
+	 * @return Solution mirrored solution
+	 */
+	public static Solution transpose(Solution solution) {
+		byte[] moves = new byte[solution.length()];
+
+		for (int i = 0; i < moves.length; i++)
+			moves[i] = (byte) transpose(solution.getMove(i));
+
+		return new Solution(transpose(solution.getStart()), moves);
+	}
+
+	/**
+	 * writes where every piece is on the mirror of a board
+	 *
+	 * @param where int[] where[t] is the position of piece t
+	 * @param width int side length of board
+	 * @param result int[] result[t] is set to the position of piece t on the mirror
+	 */
+	static void transpose(int[] where, int width, int[] result) {
+		int[] positions = positionsOf(width), pieces = piecesOf(width);
+
+		for (int t = 0; t < where.length; t++)
+			result[pieces[t]] = positions[where[t]];
+	}
+
+	/**
+	 * helper function returns the mirrored positions for a side length,
+	 * from the precomputed tables when there is one
+	 */
+	private static int[] positionsOf(int width) {
+		return width < POSITIONS.length && POSITIONS[width] != null ? POSITIONS[width] : positions(width);
+	}
+
+	/**
+	 * helper function returns the mirrored pieces for a side length, from
+	 * the precomputed tables when there is one
+	 */
+	private static int[] piecesOf(int width) {
+		return width < PIECES.length && PIECES[width] != null ? PIECES[width] : pieces(width);
+	}
+}
@@ -0,0 +1,181 @@
+/**
+ * WalkingDistanceHeuristic.java estimates the moves left with the walking
+ * distance. Looking only at rows, a board is summed up by how many pieces
+ * in each row belong in each row and which row the blank is in; every up
+ * or down move swaps the blank with one piece of the row above or below.
+ * The fewest such moves to reach the goal summary is a lower bound on the
+ * up and down moves left, and the same table read with columns instead of
+ * rows bounds the left and right moves, so their sum never overestimates.
+ * It is never below the manhattan distance and is often well above it.
+ *
+ * The table of every summary is built once by a breadth first search back
+ * from the goal (about 25,000 summaries for 4x4), which is why boards are
+ * limited to 4x4.
+ *
+ * @author Jeremy Fang
+ *
+ * @version 1.0
+ *
+ * @date 9/10/2018
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class WalkingDistanceHeuristic implements Heuristic {
+
+	private static final int BITS = 3; // bits per count in a summary
+
+	private int width; // side length of board
+	private long[] keys; // every summary, sorted
+	private byte[] moves; // moves[i] is the fewest moves from keys[i] to the goal
+
+	/**
+	 * creates new instance of WalkingDistanceHeuristic for boards with the
+	 * given side length and builds its table
+	 *
+	 * @param width int side length of board (at most 4)
+	 */
+	public WalkingDistanceHeuristic(int width) {
+		if (width < 2 || width > 4)
+			throw new IllegalArgumentException("Error: walking distance only supports 2x2 to 4x4 boards");
+
+		this.width = width;
+		build();
+	}
+
+	/**
+	 * returns the walking distance of the board
+	 *
+	 * @param board Board board being estimated
+	 * @return int estimated number of moves left
+	 */
+	public int estimate(Board board) {
+		if (board.getLength() != width || board.getRows() != width)
+			throw new IllegalArgumentException("Error: board does not match the heuristic size");
+
+		long rows = 0, cols = 0;
+
+		for (int i = 0; i < width; i++)
+			for (int j = 0; j < width; j++) {
+				int t = board.getIndex(i, j);
+
+				if (t == 0) {
+					rows |= (long) i << (BITS * width * width);
+					cols |= (long) j << (BITS * width * width);
+				}
+				else {
+					rows += 1L << (BITS * (i * width + (t - 1) / width));
+					cols += 1L << (BITS * (j * width + (t - 1) % width));
+				}
+			}
+
+		return lookup(rows) + lookup(cols);
+	}
+
+	/**
+	 * returns the walking distance of the board
+	 *
+	 * @param board PackedBoard board being estimated
+	 * @return int estimated number of moves left
+	 */
+	public int estimate(PackedBoard board) {
+		if (board.getLength() != width || board.getRows() != width)
+			throw new IllegalArgumentException("Error: board does not match the heuristic size");
+
+		long rows = 0, cols = 0;
+
+		for (int p = 0; p < width * width; p++) {
+			int t = board.tile(p), i = p / width, j = p % width;
+
+			if (t == 0) {
+				rows |= (long) i << (BITS * width * width);
+				cols |= (long) j << (BITS * width * width);
+			}
+			else {
+				rows += 1L << (BITS * (i * width + (t - 1) / width));
+				cols += 1L << (BITS * (j * width + (t - 1) % width));
+			}
+		}
+
+		return lookup(rows) + lookup(cols);
+	}
+
+	/**
+	 * helper function finds the moves stored for a summary
+	 *
+	 * @param key long summary of the board
+	 * @return int fewest moves from the summary to the goal
+	 */
+	private int lookup(long key) {
+		return moves[Arrays.binarySearch(keys, key)];
+	}
+
+	/**
+	 * helper function runs the breadth first search from the goal summary
+	 * and stores every summary it reaches with its number of moves.
+	 * A summary holds count[r][g], the number of pieces in row r that
+	 * belong in row g, with BITS bits each, and the row of the blank above them.
+	 */
+	private void build() {
+		HashMap<Long, Integer> seen = new HashMap<Long, Integer>();
+		ArrayList<Long> layer = new ArrayList<Long>();
+		long goal = (long) (width - 1) << (BITS * width * width);
+
+		for (int r = 0; r < width; r++)
+			goal += (long) (r == width - 1 ? width - 1 : width) << (BITS * (r * width + r));
+
+		seen.put(goal, 0);
+		layer.add(goal);
+
+		for (int depth = 1; !layer.isEmpty(); depth++) {
+			ArrayList<Long> next = new ArrayList<Long>();
+
+			for (long key : layer) {
+				int blank = (int) (key >>> (BITS * width * width));
+
+				for (int r = blank - 1; r <= blank + 1; r += 2) {
+					if (r < 0 || r >= width)
+						continue;
+
+					for (int g = 0; g < width; g++) {
+						if (count(key, r, g) == 0)
+							continue;
+
+						// a piece of row r that belongs in row g swaps with the blank
+						long moved = key - (1L << (BITS * (r * width + g)))
+										 + (1L << (BITS * (blank * width + g)));
+						moved = (moved & ((1L << (BITS * width * width)) - 1))
+								| ((long) r << (BITS * width * width));
+
+						if (!seen.containsKey(moved)) {
+							seen.put(moved, depth);
+							next.add(moved);
+						}
+					}
+				}
+			}
+
+			layer = next;
+		}
+
+		keys = new long[seen.size()];
+		moves = new byte[seen.size()];
+
+		int i = 0;
+		for (long key : seen.keySet())
+			keys[i++] = key;
+		Arrays.sort(keys);
+
+		for (i = 0; i < keys.length; i++)
+			moves[i] = (byte) (int) seen.get(keys[i]);
+	}
+
+	/**
+	 * helper function reads count[r][g] out of a summary
+	 */
+	private int count(long key, int r, int g) {
+		return (int) (key >>> (BITS * (r * width + g))) & ((1 << BITS) - 1);
+	}
+}